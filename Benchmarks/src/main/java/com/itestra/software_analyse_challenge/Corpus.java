@@ -0,0 +1,77 @@
+package com.itestra.software_analyse_challenge;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Input tree of a benchmark: either the real {@code CodeExamples} sources or a synthetic tree of the
+ * given number of files, whose contents cycle through the {@code CodeExamples} files.
+ */
+@State(Scope.Benchmark)
+public class Corpus {
+
+    static final Path CODE_EXAMPLES = Path.of(System.getProperty("codeExamples", String.join("/", "..", "CodeExamples", "src", "main", "java")));
+
+    @Param({"CodeExamples", "1000", "10000", "100000"})
+    public String corpus;
+
+    Path root;
+    List<Path> files;
+    private boolean generated;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        List<Path> examples = new ArrayList<>();
+        new JavaFileWalker(List.of()).walk(CODE_EXAMPLES, examples::add);
+        if (examples.isEmpty()) {
+            throw new IllegalStateException("No Java files found in " + CODE_EXAMPLES.toAbsolutePath() + ", set -DcodeExamples=<dir>");
+        }
+        examples.sort(Comparator.naturalOrder());
+
+        if (corpus.equals("CodeExamples")) {
+            root = CODE_EXAMPLES;
+            files = examples;
+            return;
+        }
+
+        int size = Integer.parseInt(corpus);
+        List<byte[]> contents = new ArrayList<>();
+        for (Path example : examples) {
+            contents.add(Files.readAllBytes(example));
+        }
+        root = Files.createTempDirectory("corpus-" + size + "-");
+        generated = true;
+        files = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Path dir = root.resolve("module" + i / 1000).resolve("pkg" + i / 50 % 20);
+            Files.createDirectories(dir);
+            Path file = dir.resolve("Generated" + i + ".java");
+            Files.write(file, contents.get(i % contents.size()));
+            files.add(file);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (!generated) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.itestra.software_analyse_challenge;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One operation computes the direct dependencies of every file of the corpus.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DependencyAnalyserBenchmark {
+
+    @Benchmark
+    public int computeDependencies(Corpus corpus) {
+        int sum = 0;
+        for (Path file : corpus.files) {
+            sum += DependencyAnalyser.computeDependencies(file.toFile()).size();
+        }
+        return sum;
+    }
+}
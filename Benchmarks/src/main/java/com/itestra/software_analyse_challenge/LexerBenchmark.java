@@ -0,0 +1,85 @@
+package com.itestra.software_analyse_challenge;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the lexer based bonus counter with the former regex based one on lines already in memory,
+ * so that file I/O and decoding do not hide the difference. One operation covers every file of the corpus.
+ * <p>
+ * Throughput differs from fork to fork by more than the gap between the two counters, so the comparison runs
+ * three forks; report the scores with their error.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(3)
+public class LexerBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Lines {
+        List<String[]> files;
+
+        @Setup(Level.Trial)
+        public void setUp(Corpus corpus) throws IOException {
+            files = new ArrayList<>(corpus.files.size());
+            for (Path file : corpus.files) {
+                files.add(Files.readAllLines(file).toArray(new String[0]));
+            }
+        }
+    }
+
+    @Benchmark
+    public int lexerBonusCount(Lines lines) {
+        int sum = 0;
+        for (String[] file : lines.files) {
+            JavaLexer lexer = new JavaLexer();
+            BonusLineCounter counter = new BonusLineCounter();
+            for (String line : file) {
+                counter.analyseLine(lexer.next(line));
+            }
+            sum += counter.getCount();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int regexBonusCount(Lines lines) {
+        int sum = 0;
+        for (String[] file : lines.files) {
+            sum += RegexBonusLineCounter.computeLineNumberBonus(Arrays.asList(file).iterator());
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int lexerOnly(Lines lines) {
+        int sum = 0;
+        for (String[] file : lines.files) {
+            JavaLexer lexer = new JavaLexer();
+            for (String line : file) {
+                sum += lexer.next(line).getKind().ordinal();
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int trimOnly(Lines lines) {
+        int sum = 0;
+        for (String[] file : lines.files) {
+            for (String line : file) {
+                sum += line.trim().length();
+            }
+        }
+        return sum;
+    }
+}
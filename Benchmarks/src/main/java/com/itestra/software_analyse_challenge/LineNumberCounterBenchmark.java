@@ -0,0 +1,65 @@
+package com.itestra.software_analyse_challenge;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One operation counts the lines of every file of the corpus.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LineNumberCounterBenchmark {
+
+    @Benchmark
+    public int computeLineNumber(Corpus corpus) {
+        int sum = 0;
+        for (Path file : corpus.files) {
+            sum += LineNumberCounter.computeLineNumber(file.toFile());
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int computeLineNumberMapped(Corpus corpus) {
+        int sum = 0;
+        for (Path file : corpus.files) {
+            sum += MappedLineNumberCounter.computeLineNumber(file);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int computeLineNumberBonus(Corpus corpus) {
+        int sum = 0;
+        for (Path file : corpus.files) {
+            sum += LineNumberCounter.computeLineNumberBonus(file.toFile());
+        }
+        return sum;
+    }
+
+    /**
+     * Baseline for {@link #computeLineNumberBonus(Corpus)}: the regex and indexOf based counter the lexer replaced.
+     */
+    @Benchmark
+    public int computeLineNumberBonusRegex(Corpus corpus) {
+        int sum = 0;
+        for (Path file : corpus.files) {
+            sum += RegexBonusLineCounter.computeLineNumberBonus(file.toFile());
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int analyseSinglePass(Corpus corpus) {
+        int sum = 0;
+        for (Path file : corpus.files) {
+            sum += FileAnalyser.analyse(file).getLineNumber();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,94 @@
+package com.itestra.software_analyse_challenge;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.regex.Pattern;
+
+/**
+ * The bonus line counter as it was before {@link JavaLexer}, kept as a benchmark baseline.
+ */
+class RegexBonusLineCounter {
+    private static final Pattern GETTER_PATTERN = Pattern.compile("^\\s*public\\s+[\\w<>\\[\\]]+\\s+get\\w+\\s*\\(\\s*\\)\\s*\\{?\\s*$");
+    private static final Pattern GETTER_BODY_PATTERN = Pattern.compile("^\\s*return\\s+(this\\.)?\\w+\\s*;\\s*}?\\s*$");
+
+    static int computeLineNumberBonus(File file) {
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            return computeLineNumberBonus(reader.lines().iterator());
+        } catch (IOException e) {
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    static int computeLineNumberBonus(Iterator<String> lines) {
+        int count = 0;
+        boolean inBlockComment = false;
+        boolean inGetter = false;
+        int braceDepth = 0;
+
+        while (lines.hasNext()) {
+            String line = lines.next().trim();
+
+            if (inBlockComment) {
+                int endIndex = line.indexOf("*/");
+                if (endIndex != -1) {
+                    inBlockComment = false;
+                    line = line.substring(endIndex + 2).trim();
+                } else {
+                    continue;
+                }
+            }
+
+            int startIndex = line.indexOf("/*");
+            if (startIndex != -1) {
+                inBlockComment = true;
+                int endIndex = line.indexOf("*/", startIndex + 2);
+                if (endIndex != -1) {
+                    inBlockComment = false;
+                    line = line.substring(0, startIndex) + line.substring(endIndex + 2);
+                } else {
+                    line = line.substring(0, startIndex);
+                }
+                line = line.trim();
+            }
+
+            if (inBlockComment) continue;
+
+            if (line.isEmpty() || line.startsWith("//")) continue;
+
+            if (inGetter) {
+                if (!GETTER_BODY_PATTERN.matcher(line).matches() && !(line.equals("{") || line.equals("}"))) {
+                    inGetter = false;
+                    count += 2;
+                    continue;
+                }
+
+                for (char c : line.toCharArray()) {
+                    if (c == '{') braceDepth++;
+                    else if (c == '}') braceDepth--;
+                }
+                if (braceDepth <= 0) {
+                    inGetter = false;
+                    braceDepth = 0;
+                }
+                continue;
+            }
+
+            if (GETTER_PATTERN.matcher(line).matches()) {
+                inGetter = true;
+                braceDepth = 0;
+                for (char c : line.toCharArray()) {
+                    if (c == '{') braceDepth++;
+                    else if (c == '}') braceDepth--;
+                }
+                continue;
+            }
+
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,50 @@
+package com.itestra.software_analyse_challenge;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the stages around the per-file analysis: walking the tree and printing the result.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TreeBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class AnalysedCorpus {
+        Map<String, Output> result;
+        private PrintStream originalOut;
+
+        @Setup(Level.Trial)
+        public void setUp(Corpus corpus) {
+            result = SourceCodeAnalyser.analyse(SourceCodeAnalyser.parseInput(new String[]{"-i", corpus.root.toString()}));
+            originalOut = System.out;
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            System.setOut(originalOut);
+        }
+    }
+
+    @Benchmark
+    public int walk(Corpus corpus) {
+        int[] count = new int[1];
+        new JavaFileWalker(List.of()).walk(corpus.root, file -> count[0]++);
+        return count[0];
+    }
+
+    @Benchmark
+    public void printOutput(AnalysedCorpus analysed) {
+        SourceCodeAnalyser.printOutput(analysed.result);
+    }
+}
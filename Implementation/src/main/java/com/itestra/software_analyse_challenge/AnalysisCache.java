@@ -0,0 +1,204 @@
+package com.itestra.software_analyse_challenge;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Persistent per-file {@link FileAnalysis} results, keyed by the file name used in the output.
+ * <p>
+ * A file whose modification time and size match its entry is not opened at all. If only the
+ * modification time differs, the content hash decides whether the cached result can be reused.
+ * The whole cache is discarded when {@link #ANALYSER_VERSION}, the project configuration or the charset
+ * changes.
+ * Entries of files that were not seen during a run are dropped on {@link #save()}.
+ */
+public class AnalysisCache {
+
+    /**
+     * Must be increased whenever a change to the analysers can change the result for the same content.
+     */
+    static final int ANALYSER_VERSION = 7;
+
+    private static final int MAGIC = 0x53434143;
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    private final Path cacheFile;
+    private final ProjectRegistry registry;
+    private final Charset charset;
+    private final String configuration;
+    private final Map<String, Entry> previous;
+    private final Map<String, Entry> current = new ConcurrentHashMap<>();
+
+    private AnalysisCache(Path cacheFile, ProjectRegistry registry, Charset charset, String configuration,
+                          Map<String, Entry> previous) {
+        this.cacheFile = cacheFile;
+        this.registry = registry;
+        this.charset = charset;
+        this.configuration = configuration;
+        this.previous = previous;
+    }
+
+    public static AnalysisCache load(Path cacheFile) {
+        return load(cacheFile, ProjectRegistry.DEFAULT);
+    }
+
+    public static AnalysisCache load(Path cacheFile, ProjectRegistry registry) {
+        return load(cacheFile, registry, SourceDecoder.DEFAULT_CHARSET);
+    }
+
+    public static AnalysisCache load(Path cacheFile, ProjectRegistry registry, Charset charset) {
+        String configuration = configurationFingerprint(registry, charset);
+        Map<String, Entry> entries = new ConcurrentHashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+            if (in.readInt() == MAGIC && in.readInt() == ANALYSER_VERSION && in.readUTF().equals(configuration)) {
+                int size = in.readInt();
+                for (int i = 0; i < size; i++) {
+                    String fileName = in.readUTF();
+                    entries.put(fileName, Entry.read(in));
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // first run, start with an empty cache
+        } catch (IOException e) {
+            System.err.println("Ignoring unreadable analysis cache " + cacheFile + ": " + e);
+            entries.clear();
+        }
+        return new AnalysisCache(cacheFile, registry, charset, configuration, entries);
+    }
+
+    /**
+     * Returns the cached result for {@code file} if it is still valid, otherwise analyses the file and
+     * remembers the result.
+     */
+    public FileAnalysis analyse(String fileName, Path file) {
+        return analyse(fileName, file, null);
+    }
+
+    /**
+     * Like {@link #analyse(String, Path)}, but a changed file is analysed by {@code analyser}, e.g. to share the
+     * result of identical files, and read once more for its hash.
+     */
+    public FileAnalysis analyse(String fileName, Path file, Supplier<FileAnalysis> analyser) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            long modified = attributes.lastModifiedTime().toMillis();
+            long size = attributes.size();
+
+            Entry entry = previous.get(fileName);
+            if (entry != null && entry.size == size) {
+                if (entry.modified == modified || Arrays.equals(entry.hash, hash(file))) {
+                    current.put(fileName, entry.withModified(modified));
+                    return entry.analysis;
+                }
+            }
+
+            if (analyser != null) {
+                FileAnalysis analysis = analyser.get();
+                current.put(fileName, new Entry(modified, size, hash(file), analysis));
+                return analysis;
+            }
+            if (size >= ChunkedLineCounter.PARALLEL_THRESHOLD) {
+                // counted in parallel chunks and hashed in a second read
+                FileAnalysis analysis = FileAnalyser.analyse(file, registry, charset);
+                current.put(fileName, new Entry(modified, size, hash(file), analysis));
+                return analysis;
+            }
+            MessageDigest digest = newDigest();
+            FileAnalysis analysis;
+            try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+                analysis = FileAnalyser.analyse(in, registry, charset);
+            }
+            current.put(fileName, new Entry(modified, size, digest.digest(), analysis));
+            return analysis;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return new FileAnalysis(0, 0, "", new ArrayList<>(), new ArrayList<>());
+        }
+    }
+
+    public void save() {
+        Path temp = cacheFile.resolveSibling(cacheFile.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(ANALYSER_VERSION);
+                out.writeUTF(configuration);
+                out.writeInt(current.size());
+                for (Map.Entry<String, Entry> e : current.entrySet()) {
+                    out.writeUTF(e.getKey());
+                    e.getValue().write(out);
+                }
+            }
+            Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    static String configurationFingerprint(ProjectRegistry registry, Charset charset) {
+        return registry.getPrefixes() + " " + charset.name();
+    }
+
+    private static byte[] hash(Path file) throws IOException {
+        MessageDigest digest = newDigest();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return digest.digest();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(HASH_ALGORITHM + " is not available", e);
+        }
+    }
+
+    private static class Entry {
+        private final long modified;
+        private final long size;
+        private final byte[] hash;
+        private final FileAnalysis analysis;
+
+        Entry(long modified, long size, byte[] hash, FileAnalysis analysis) {
+            this.modified = modified;
+            this.size = size;
+            this.hash = hash;
+            this.analysis = analysis;
+        }
+
+        Entry withModified(long modified) {
+            return modified == this.modified ? this : new Entry(modified, size, hash, analysis);
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeLong(modified);
+            out.writeLong(size);
+            out.writeByte(hash.length);
+            out.write(hash);
+            analysis.write(out);
+        }
+
+        static Entry read(DataInputStream in) throws IOException {
+            long modified = in.readLong();
+            long size = in.readLong();
+            byte[] hash = new byte[in.readUnsignedByte()];
+            in.readFully(hash);
+            return new Entry(modified, size, hash, FileAnalysis.read(in));
+        }
+    }
+}
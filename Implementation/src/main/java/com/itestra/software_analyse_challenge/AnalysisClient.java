@@ -0,0 +1,40 @@
+package com.itestra.software_analyse_challenge;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Fetches a query from a running {@code --serve} instance on this machine and copies the response, so a
+ * hook only pays for a small JVM and one request instead of a full analysis.
+ */
+public class AnalysisClient {
+
+    /**
+     * Copies the response to {@code pathAndQuery}, e.g. {@code /result?format=csv}, to {@code out}.
+     *
+     * @throws IOException if the server cannot be reached or answers with an error
+     */
+    public static void fetch(int port, String pathAndQuery, OutputStream out) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) URI.create("http://127.0.0.1:" + port + pathAndQuery).toURL().openConnection();
+        try {
+            int status = connection.getResponseCode();
+            if (status != HttpURLConnection.HTTP_OK) {
+                String message;
+                try (InputStream error = connection.getErrorStream()) {
+                    message = error == null ? "" : new String(error.readAllBytes(), StandardCharsets.UTF_8).trim();
+                }
+                throw new IOException("Server answered " + status + ": " + message);
+            }
+            try (InputStream in = connection.getInputStream()) {
+                in.transferTo(out);
+            }
+            out.flush();
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
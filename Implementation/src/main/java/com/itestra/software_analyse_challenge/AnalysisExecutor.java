@@ -0,0 +1,68 @@
+package com.itestra.software_analyse_challenge;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs analysis tasks either inline or on a work-stealing pool. At most {@code threads * QUEUE_FACTOR}
+ * tasks are in flight at once; {@link #submit(Runnable)} blocks the producer until a slot frees up.
+ */
+public class AnalysisExecutor implements AutoCloseable {
+    private static final int QUEUE_FACTOR = 4;
+
+    private final ForkJoinPool pool;
+    private final Semaphore slots;
+    private final Phaser pending = new Phaser(1);
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    public AnalysisExecutor(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1 but was " + threads);
+        }
+        this.pool = threads == 1 ? null : new ForkJoinPool(threads);
+        this.slots = new Semaphore(threads * QUEUE_FACTOR);
+    }
+
+    public void submit(Runnable task) {
+        if (pool == null) {
+            task.run();
+            return;
+        }
+        slots.acquireUninterruptibly();
+        pending.register();
+        pool.execute(() -> {
+            try {
+                task.run();
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            } finally {
+                slots.release();
+                pending.arriveAndDeregister();
+            }
+        });
+    }
+
+    public void awaitCompletion() {
+        pending.arriveAndAwaitAdvance();
+        Throwable t = failure.get();
+        if (t != null) {
+            throw new IllegalStateException("Analysis task failed", t);
+        }
+    }
+
+    /**
+     * The number of further tasks that can be submitted before {@link #submit(Runnable)} blocks.
+     */
+    int availableSlots() {
+        return slots.availablePermits();
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+}
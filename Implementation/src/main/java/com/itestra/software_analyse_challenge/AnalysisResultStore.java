@@ -0,0 +1,265 @@
+package com.itestra.software_analyse_challenge;
+
+import java.util.*;
+
+/**
+ * The results of one run in columnar form: file {@code i} has the path node {@code pathNodes[i]} in a
+ * {@link PathTrie}, its counts in {@code lineNumbers[i]} and {@code lineNumbersBonus[i]} and its transitive
+ * project dependencies as bits in {@code dependencies}, {@code words} longs per file. The project a file
+ * belongs to according to its package is {@code ownProjects[i]}, an index into the registry's projects.
+ * Files are sorted by name.
+ * <p>
+ * {@link Output} and {@link OutputLine} objects are only created on demand, see {@link #getOutput(int)} and
+ * {@link #asMap()}.
+ */
+public class AnalysisResultStore {
+
+    private final PathTrie paths;
+    private final int[] pathNodes;
+    private final int[] fileOfNode;
+    private final int[] lineNumbers;
+    private final int[] lineNumbersBonus;
+    private final ProjectRegistry registry;
+    private final int[] ownProjects;
+    private final List<String> projectNames;
+    private final int words;
+    private final long[] dependencies;
+    private final ImportGraph graph;
+
+    private AnalysisResultStore(PathTrie paths, int[] pathNodes, int[] lineNumbers, int[] lineNumbersBonus,
+                                ProjectRegistry registry, int[] ownProjects, ImportGraph graph) {
+        this.paths = paths;
+        this.pathNodes = pathNodes;
+        this.lineNumbers = lineNumbers;
+        this.lineNumbersBonus = lineNumbersBonus;
+        this.registry = registry;
+        this.ownProjects = ownProjects;
+        this.projectNames = graph.getProjectNames();
+        this.words = graph.getWords();
+        this.dependencies = graph.getDependencyBits();
+        this.graph = graph;
+        this.fileOfNode = new int[paths.size()];
+        Arrays.fill(fileOfNode, -1);
+        for (int i = 0; i < pathNodes.length; i++) {
+            fileOfNode[pathNodes[i]] = i;
+        }
+    }
+
+    public static AnalysisResultStore build(Map<String, FileAnalysis> analyses, ImportGraph graph, ProjectRegistry registry) {
+        List<String> fileNames = graph.getFileNames();
+        int fileCount = fileNames.size();
+        PathTrie paths = new PathTrie();
+        int[] pathNodes = new int[fileCount];
+        int[] lineNumbers = new int[fileCount];
+        int[] lineNumbersBonus = new int[fileCount];
+        int[] ownProjects = new int[fileCount];
+        for (int i = 0; i < fileCount; i++) {
+            String fileName = fileNames.get(i);
+            FileAnalysis analysis = analyses.get(fileName);
+            pathNodes[i] = paths.add(fileName);
+            lineNumbers[i] = analysis.getLineNumber();
+            lineNumbersBonus[i] = analysis.getLineNumberBonus();
+            ownProjects[i] = ownProject(registry, analysis);
+        }
+        return new AnalysisResultStore(paths, pathNodes, lineNumbers, lineNumbersBonus, registry, ownProjects, graph);
+    }
+
+    /**
+     * Returns the store after the files in {@code changed} were analysed again. {@code graph} must contain
+     * the same files as the graph this store was built from, e.g. as returned by
+     * {@link ImportGraph#update(Map, java.util.Collection)}; the paths are shared.
+     */
+    public AnalysisResultStore update(Map<String, FileAnalysis> analyses, ImportGraph graph, Collection<String> changed) {
+        int[] newLineNumbers = lineNumbers.clone();
+        int[] newLineNumbersBonus = lineNumbersBonus.clone();
+        int[] newOwnProjects = ownProjects.clone();
+        for (String fileName : changed) {
+            int file = indexOf(fileName);
+            FileAnalysis analysis = analyses.get(fileName);
+            newLineNumbers[file] = analysis.getLineNumber();
+            newLineNumbersBonus[file] = analysis.getLineNumberBonus();
+            newOwnProjects[file] = ownProject(registry, analysis);
+        }
+        return new AnalysisResultStore(paths, pathNodes, newLineNumbers, newLineNumbersBonus, registry, newOwnProjects, graph);
+    }
+
+    private static int ownProject(ProjectRegistry registry, FileAnalysis analysis) {
+        String project = registry.resolve(analysis.getPackageName());
+        return project == null ? -1 : registry.getProjectNames().indexOf(project);
+    }
+
+    public int size() {
+        return pathNodes.length;
+    }
+
+    public String getFileName(int file) {
+        return paths.getPath(pathNodes[file]);
+    }
+
+    /**
+     * The index of {@code fileName} or -1 if it is not part of the result.
+     */
+    public int indexOf(String fileName) {
+        int node = paths.find(fileName);
+        return node < 0 ? -1 : fileOfNode[node];
+    }
+
+    public int getLineNumber(int file) {
+        return lineNumbers[file];
+    }
+
+    public int getLineNumberBonus(int file) {
+        return lineNumbersBonus[file];
+    }
+
+    /**
+     * The project {@code file} belongs to according to its package, or {@code null}.
+     */
+    public String getProject(int file) {
+        return ownProjects[file] < 0 ? null : registry.getProjectNames().get(ownProjects[file]);
+    }
+
+    /**
+     * Whether {@code file} depends on the project with the given index in {@link #getProjectNames()}.
+     */
+    public boolean dependsOn(int file, int project) {
+        return (dependencies[file * words + (project >>> 6)] & 1L << project) != 0;
+    }
+
+    public List<String> getProjectNames() {
+        return projectNames;
+    }
+
+    /**
+     * The reverse edges of the graph of this result; its file and project indexes are the ones of this store.
+     */
+    public ReverseDependencyIndex getReverseIndex() {
+        return graph.getReverseIndex();
+    }
+
+    public List<String> getDependencies(int file) {
+        List<String> result = new ArrayList<>();
+        for (int w = 0; w < words; w++) {
+            long bits = dependencies[file * words + w];
+            while (bits != 0) {
+                result.add(projectNames.get(w * 64 + Long.numberOfTrailingZeros(bits)));
+                bits &= bits - 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Whether {@code file} has the same counts and dependencies as {@code otherFile} in {@code other}.
+     */
+    public boolean sameRow(int file, AnalysisResultStore other, int otherFile) {
+        if (lineNumbers[file] != other.lineNumbers[otherFile] || lineNumbersBonus[file] != other.lineNumbersBonus[otherFile]) {
+            return false;
+        }
+        if (projectNames != other.projectNames && !projectNames.equals(other.projectNames)) {
+            return getDependencies(file).equals(other.getDependencies(otherFile));
+        }
+        return Arrays.equals(dependencies, file * words, (file + 1) * words,
+                other.dependencies, otherFile * words, (otherFile + 1) * words);
+    }
+
+    /**
+     * Adds the files that are new or whose row differs from {@code previous} to {@code changed} and the files
+     * only {@code previous} has to {@code removed}, both in file name order.
+     */
+    public void diff(AnalysisResultStore previous, List<String> changed, List<String> removed) {
+        if (paths == previous.paths) {
+            // an update of previous, same files in the same order
+            for (int i = 0; i < size(); i++) {
+                if (!sameRow(i, previous, i)) {
+                    changed.add(getFileName(i));
+                }
+            }
+            return;
+        }
+        // both are sorted by name, so one merge finds every difference
+        int j = 0;
+        for (int i = 0; i < size(); i++) {
+            String fileName = getFileName(i);
+            int order = -1;
+            while (j < previous.size() && (order = previous.getFileName(j).compareTo(fileName)) < 0) {
+                removed.add(previous.getFileName(j++));
+            }
+            if (j == previous.size() || order != 0) {
+                changed.add(fileName);
+            } else if (!sameRow(i, previous, j++)) {
+                changed.add(fileName);
+            }
+        }
+        while (j < previous.size()) {
+            removed.add(previous.getFileName(j++));
+        }
+    }
+
+    public Output getOutput(int file) {
+        Output output = new Output(lineNumbers[file], getDependencies(file));
+        if (lineNumbersBonus[file] != lineNumbers[file]) {
+            output.lineNumberBonus(lineNumbersBonus[file]);
+        }
+        return output;
+    }
+
+    public OutputLine getOutputLine(int file) {
+        Output output = getOutput(file);
+        return new OutputLine(getFileName(file), output.getLineNumber(), output.getLineNumberBonus(), output.getDependencies());
+    }
+
+    /**
+     * A read-only view of the store as file name to {@link Output}, creating the values on access.
+     */
+    public Map<String, Output> asMap() {
+        return new AbstractMap<>() {
+            @Override
+            public int size() {
+                return AnalysisResultStore.this.size();
+            }
+
+            @Override
+            public boolean containsKey(Object key) {
+                return key instanceof String && indexOf((String) key) >= 0;
+            }
+
+            @Override
+            public Output get(Object key) {
+                int file = key instanceof String ? indexOf((String) key) : -1;
+                return file < 0 ? null : getOutput(file);
+            }
+
+            @Override
+            public Set<Entry<String, Output>> entrySet() {
+                return new AbstractSet<>() {
+                    @Override
+                    public int size() {
+                        return AnalysisResultStore.this.size();
+                    }
+
+                    @Override
+                    public Iterator<Entry<String, Output>> iterator() {
+                        return new Iterator<>() {
+                            private int next;
+
+                            @Override
+                            public boolean hasNext() {
+                                return next < AnalysisResultStore.this.size();
+                            }
+
+                            @Override
+                            public Entry<String, Output> next() {
+                                if (!hasNext()) {
+                                    throw new NoSuchElementException();
+                                }
+                                int file = next++;
+                                return new SimpleImmutableEntry<>(getFileName(file), getOutput(file));
+                            }
+                        };
+                    }
+                };
+            }
+        };
+    }
+}
@@ -0,0 +1,220 @@
+package com.itestra.software_analyse_challenge;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Answers queries about the latest result over HTTP on the loopback interface, for {@code --serve}. All
+ * responses are UTF-8; a query sees one consistent result even if {@link #update} is called meanwhile.
+ * <ul>
+ *     <li>{@code GET /result?format=table} - the whole result as the CLI would print it, in any {@link OutputFormat}</li>
+ *     <li>{@code GET /file?path=fig/A.java} - the row of one file as a JSON object</li>
+ *     <li>{@code GET /dependents?project=spark} - JSON array of the files depending on the project</li>
+ *     <li>{@code GET /dependents?file=fig/A.java} - JSON array of the files importing the file directly or indirectly</li>
+ *     <li>{@code GET /sloc} - JSON object with the files and source lines of every project, by package</li>
+ * </ul>
+ */
+public class AnalysisServer {
+
+    private final HttpServer server;
+    private volatile AnalysisResultStore results;
+
+    public AnalysisServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/result", exchange -> handle(exchange, this::result));
+        server.createContext("/file", exchange -> handle(exchange, this::file));
+        server.createContext("/dependents", exchange -> handle(exchange, this::dependents));
+        server.createContext("/sloc", exchange -> handle(exchange, this::sloc));
+    }
+
+    public void update(AnalysisResultStore results) {
+        this.results = results;
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private interface Handler {
+        /**
+         * Writes the response body and returns the content type, or throws {@link RequestException}.
+         */
+        String handle(AnalysisResultStore results, Map<String, String> parameters, Writer out) throws IOException;
+    }
+
+    static class RequestException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        RequestException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+
+        int getStatus() {
+            return status;
+        }
+    }
+
+    private void handle(HttpExchange exchange, Handler handler) throws IOException {
+        try (exchange) {
+            AnalysisResultStore snapshot = results;
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                sendError(exchange, 405, "Only GET is supported");
+                return;
+            }
+            if (snapshot == null) {
+                sendError(exchange, 503, "The initial analysis is still running");
+                return;
+            }
+            StringWriter body = new StringWriter();
+            String contentType;
+            try {
+                contentType = handler.handle(snapshot, parseQuery(exchange.getRequestURI().getRawQuery()), body);
+            } catch (RequestException e) {
+                sendError(exchange, e.status, e.getMessage());
+                return;
+            }
+            send(exchange, 200, contentType, body.toString());
+        }
+    }
+
+    private String result(AnalysisResultStore results, Map<String, String> parameters, Writer out) throws IOException {
+        OutputFormat format;
+        try {
+            format = OutputFormat.forName(parameters.getOrDefault("format", OutputFormat.TABLE.getName()));
+        } catch (IllegalArgumentException e) {
+            throw new RequestException(400, e.getMessage());
+        }
+        OutputWriter writer = format.open(out);
+        for (int file = 0; file < results.size(); file++) {
+            writer.write(results.getFileName(file), results.getOutput(file));
+        }
+        writer.finish();
+        return format == OutputFormat.JSON || format == OutputFormat.NDJSON ? "application/json" : "text/plain";
+    }
+
+    private String file(AnalysisResultStore results, Map<String, String> parameters, Writer out) throws IOException {
+        String path = require(parameters, "path");
+        int file = results.indexOf(path);
+        if (file < 0) {
+            throw new RequestException(404, "Unknown file " + path);
+        }
+        OutputWriter writer = OutputFormat.NDJSON.open(out);
+        writer.write(path, results.getOutput(file));
+        writer.finish();
+        return "application/json";
+    }
+
+    private String dependents(AnalysisResultStore results, Map<String, String> parameters, Writer out) throws IOException {
+        ReverseDependencyIndex index = results.getReverseIndex();
+        FileBitmap dependents;
+        String path = parameters.get("file");
+        if (path != null) {
+            int file = results.indexOf(path);
+            if (file < 0) {
+                throw new RequestException(404, "Unknown file " + path);
+            }
+            dependents = index.getFileDependents(file);
+        } else {
+            int project = results.getProjectNames().indexOf(require(parameters, "project"));
+            dependents = project < 0 ? FileBitmap.EMPTY : index.getProjectDependents(project);
+        }
+        out.write('[');
+        boolean first = true;
+        for (int file : dependents.toArray()) {
+            if (!first) {
+                out.write(',');
+            }
+            first = false;
+            Json.writeString(out, results.getFileName(file));
+        }
+        out.write("]\n");
+        return "application/json";
+    }
+
+    private String sloc(AnalysisResultStore results, Map<String, String> parameters, Writer out) throws IOException {
+        Map<String, long[]> totals = new TreeMap<>();
+        for (int file = 0; file < results.size(); file++) {
+            String project = results.getProject(file);
+            if (project != null) {
+                long[] total = totals.computeIfAbsent(project, p -> new long[3]);
+                total[0]++;
+                total[1] += results.getLineNumber(file);
+                total[2] += results.getLineNumberBonus(file);
+            }
+        }
+        out.write('{');
+        boolean first = true;
+        for (Map.Entry<String, long[]> entry : totals.entrySet()) {
+            if (!first) {
+                out.write(',');
+            }
+            first = false;
+            long[] total = entry.getValue();
+            Json.writeString(out, entry.getKey());
+            out.write(":{\"files\":" + total[0] + ",\"sourceLines\":" + total[1] + ",\"sourceLinesBonus\":" + total[2] + "}");
+        }
+        out.write("}\n");
+        return "application/json";
+    }
+
+    private static String require(Map<String, String> parameters, String name) {
+        String value = parameters.get(name);
+        if (value == null) {
+            throw new RequestException(400, "Missing parameter " + name);
+        }
+        return value;
+    }
+
+    static Map<String, String> parseQuery(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        if (query == null) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            String name = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            parameters.put(decode(name), decode(value));
+        }
+        return parameters;
+    }
+
+    private static String decode(String encoded) {
+        try {
+            return URLDecoder.decode(encoded, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new RequestException(400, "Malformed query parameter " + encoded + ": " + e.getMessage());
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        send(exchange, status, "text/plain", message + "\n");
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+}
@@ -0,0 +1,254 @@
+package com.itestra.software_analyse_challenge;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * The result of a run in a binary form that is read through a memory mapping without parsing, for
+ * {@code --snapshot} and {@code --diff}, see {@link SnapshotDiff}.
+ * <p>
+ * After a header with the counts and section offsets come the sorted project names, then one fixed-size record
+ * per file in file name order: the offset of its name, its counts, the index of its own project or -1 and its
+ * transitive project dependencies as {@code words} longs of bits. The UTF-8 file names follow at the end, each
+ * after its length. All values are big-endian.
+ */
+public class AnalysisSnapshot {
+
+    private static final int MAGIC = 0x53434153;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 28;
+    private static final int RECORD_HEADER_SIZE = 16;
+
+    private final ByteBuffer buffer;
+    private final int fileCount;
+    private final List<String> projectNames;
+    private final int words;
+    private final int recordsOffset;
+    private final int recordSize;
+
+    private AnalysisSnapshot(ByteBuffer buffer) throws IOException {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a snapshot");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported snapshot version " + buffer.getInt(4));
+        }
+        this.buffer = buffer;
+        this.fileCount = buffer.getInt(8);
+        int projectCount = buffer.getInt(12);
+        this.words = buffer.getInt(16);
+        this.recordsOffset = buffer.getInt(20);
+        this.recordSize = RECORD_HEADER_SIZE + 8 * words;
+        if (fileCount < 0 || words < 1 || recordsOffset < HEADER_SIZE || (long) recordsOffset + (long) recordSize * fileCount > buffer.limit()) {
+            throw new IOException("Truncated snapshot");
+        }
+        List<String> names = new ArrayList<>(projectCount);
+        int position = HEADER_SIZE;
+        for (int i = 0; i < projectCount; i++) {
+            int length = buffer.getInt(position);
+            names.add(decode(position + 4, length));
+            position += 4 + length;
+        }
+        this.projectNames = Collections.unmodifiableList(names);
+    }
+
+    /**
+     * The snapshot of {@code results}, kept on the heap.
+     */
+    public static AnalysisSnapshot of(AnalysisResultStore results) {
+        try {
+            return new AnalysisSnapshot(encode(results));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Maps the snapshot in {@code file}; the file must not change while the snapshot is used.
+     */
+    public static AnalysisSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(file + " is too large for a snapshot");
+            }
+            return new AnalysisSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public void write(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer content = buffer.duplicate();
+            content.clear();
+            while (content.hasRemaining()) {
+                channel.write(content);
+            }
+        }
+    }
+
+    private static ByteBuffer encode(AnalysisResultStore results) {
+        int fileCount = results.size();
+        SortedSet<String> projects = new TreeSet<>(results.getProjectNames());
+        for (int file = 0; file < fileCount; file++) {
+            if (results.getProject(file) != null) {
+                projects.add(results.getProject(file));
+            }
+        }
+        List<String> projectNames = new ArrayList<>(projects);
+        int[] projectIndex = new int[results.getProjectNames().size()];
+        for (int project = 0; project < projectIndex.length; project++) {
+            projectIndex[project] = Collections.binarySearch(projectNames, results.getProjectNames().get(project));
+        }
+        int words = Math.max(1, (projectNames.size() + 63) / 64);
+
+        byte[][] encodedProjects = new byte[projectNames.size()][];
+        int recordsOffset = HEADER_SIZE;
+        for (int project = 0; project < encodedProjects.length; project++) {
+            encodedProjects[project] = projectNames.get(project).getBytes(StandardCharsets.UTF_8);
+            recordsOffset += 4 + encodedProjects[project].length;
+        }
+        recordsOffset = (recordsOffset + 7) & ~7;
+        int recordSize = RECORD_HEADER_SIZE + 8 * words;
+        byte[][] encodedNames = new byte[fileCount][];
+        long size = recordsOffset + (long) recordSize * fileCount;
+        for (int file = 0; file < fileCount; file++) {
+            encodedNames[file] = results.getFileName(file).getBytes(StandardCharsets.UTF_8);
+            size += 4 + encodedNames[file].length;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The result of " + fileCount + " files is too large for a snapshot");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(fileCount).putInt(projectNames.size()).putInt(words).putInt(recordsOffset)
+                .putInt(recordsOffset + recordSize * fileCount);
+        for (byte[] project : encodedProjects) {
+            buffer.putInt(project.length).put(project);
+        }
+        int nameOffset = recordsOffset + recordSize * fileCount;
+        for (int file = 0; file < fileCount; file++) {
+            int record = recordsOffset + recordSize * file;
+            String ownProject = results.getProject(file);
+            buffer.putInt(record, nameOffset)
+                    .putInt(record + 4, results.getLineNumber(file))
+                    .putInt(record + 8, results.getLineNumberBonus(file))
+                    .putInt(record + 12, ownProject == null ? -1 : Collections.binarySearch(projectNames, ownProject));
+            for (int project = 0; project < projectIndex.length; project++) {
+                if (results.dependsOn(file, project)) {
+                    int bit = projectIndex[project];
+                    int word = record + RECORD_HEADER_SIZE + 8 * (bit >>> 6);
+                    buffer.putLong(word, buffer.getLong(word) | 1L << bit);
+                }
+            }
+            buffer.putInt(nameOffset, encodedNames[file].length).put(nameOffset + 4, encodedNames[file]);
+            nameOffset += 4 + encodedNames[file].length;
+        }
+        return buffer.clear();
+    }
+
+    private String decode(int position, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public int size() {
+        return fileCount;
+    }
+
+    public String getFileName(int file) {
+        int nameOffset = buffer.getInt(record(file));
+        return decode(nameOffset + 4, buffer.getInt(nameOffset));
+    }
+
+    public int getLineNumber(int file) {
+        return buffer.getInt(record(file) + 4);
+    }
+
+    public int getLineNumberBonus(int file) {
+        return buffer.getInt(record(file) + 8);
+    }
+
+    /**
+     * The project {@code file} belongs to according to its package, or {@code null}.
+     */
+    public String getProject(int file) {
+        int project = getProjectIndex(file);
+        return project < 0 ? null : projectNames.get(project);
+    }
+
+    /**
+     * The index of {@link #getProject(int)} in {@link #getProjectNames()}, or -1.
+     */
+    int getProjectIndex(int file) {
+        return buffer.getInt(record(file) + 12);
+    }
+
+    int getWords() {
+        return words;
+    }
+
+    /**
+     * Word {@code w} of the dependency bits of {@code file}.
+     */
+    long getDependencyBits(int file, int w) {
+        return buffer.getLong(record(file) + RECORD_HEADER_SIZE + 8 * w);
+    }
+
+    /**
+     * Whether {@code file} depends on the same projects as {@code otherFile} in {@code other}.
+     */
+    public boolean sameDependencies(int file, AnalysisSnapshot other, int otherFile) {
+        if (!projectNames.equals(other.projectNames)) {
+            return getDependencies(file).equals(other.getDependencies(otherFile));
+        }
+        for (int w = 0; w < words; w++) {
+            if (getDependencyBits(file, w) != other.getDependencyBits(otherFile, w)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * All projects of the snapshot, sorted by name.
+     */
+    public List<String> getProjectNames() {
+        return projectNames;
+    }
+
+    /**
+     * Whether {@code file} depends on the project with the given index in {@link #getProjectNames()}.
+     */
+    public boolean dependsOn(int file, int project) {
+        return (buffer.getLong(record(file) + RECORD_HEADER_SIZE + 8 * (project >>> 6)) & 1L << project) != 0;
+    }
+
+    /**
+     * The projects {@code file} depends on, sorted by name.
+     */
+    public List<String> getDependencies(int file) {
+        List<String> result = new ArrayList<>();
+        for (int w = 0; w < words; w++) {
+            long bits = getDependencyBits(file, w);
+            while (bits != 0) {
+                result.add(projectNames.get(w * 64 + Long.numberOfTrailingZeros(bits)));
+                bits &= bits - 1;
+            }
+        }
+        return result;
+    }
+
+    private int record(int file) {
+        return recordsOffset + recordSize * file;
+    }
+}
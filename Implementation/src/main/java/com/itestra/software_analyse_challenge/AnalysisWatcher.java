@@ -0,0 +1,170 @@
+package com.itestra.software_analyse_challenge;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Keeps the result of a source tree up to date while files change, for {@code --watch}.
+ * <p>
+ * Every directory of the tree is registered with a {@link WatchService}. Events are collected until
+ * none arrived for {@link #DEBOUNCE_MILLIS}, so that saving several files or an editor writing a file in
+ * steps causes one update. Only the touched files are read again; the import graph is then rebuilt from
+ * the remembered {@link FileAnalysis} of all other files, which needs no I/O. The listener receives the new
+ * result together with the files whose row changed, including files whose transitive dependencies
+ * changed through an import, and the files that are gone. Archives are not watched.
+ */
+public class AnalysisWatcher {
+
+    static final long DEBOUNCE_MILLIS = 50;
+
+    public interface Listener {
+        void update(AnalysisResultStore results, List<String> changed, List<String> removed);
+    }
+
+    private final Path root;
+    private final JavaFileWalker walker;
+    private final ProjectRegistry projects;
+    private final ProjectRegistry onDemandRegistry;
+    private final Charset encoding;
+    private final Listener listener;
+    private final Map<String, FileAnalysis> analyses;
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+    private ImportGraph graph;
+    private AnalysisResultStore results;
+
+    /**
+     * @param analyses the analyses of all files of the tree, e.g. from the initial run; updated in place
+     */
+    public AnalysisWatcher(Input input, Map<String, FileAnalysis> analyses, Listener listener) {
+        this.root = input.getInputDirectory().toPath();
+        this.walker = new JavaFileWalker(input.getExcludes(), false);
+        this.projects = input.getProjects();
+        this.onDemandRegistry = input.isResolveImports() ? input.getProjects() : null;
+        this.encoding = input.getEncoding();
+        this.analyses = new HashMap<>(analyses);
+        this.listener = listener;
+    }
+
+    /**
+     * Publishes the initial result, then watches the tree until the thread is interrupted.
+     */
+    public void run() throws IOException, InterruptedException {
+        try (WatchService watchService = root.getFileSystem().newWatchService()) {
+            walker.walk(root, dir -> register(watchService, dir), file -> { });
+            graph = ImportGraph.build(analyses, onDemandRegistry);
+            results = AnalysisResultStore.build(analyses, graph, projects);
+            listener.update(results, graph.getFileNames(), List.of());
+
+            while (!Thread.currentThread().isInterrupted()) {
+                Set<Path> touched = new LinkedHashSet<>();
+                boolean overflow = false;
+                WatchKey key = watchService.take();
+                do {
+                    overflow |= collect(watchService, key, touched);
+                } while ((key = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null);
+                if (overflow) {
+                    // events were lost, so every file may have changed
+                    touched.clear();
+                    analyses.keySet().forEach(fileName -> touched.add(root.resolve(fileName)));
+                    walker.walk(root, dir -> register(watchService, dir), touched::add);
+                }
+                update(touched);
+            }
+        }
+    }
+
+    private boolean collect(WatchService watchService, WatchKey key, Set<Path> touched) {
+        Path dir = directories.get(key);
+        boolean overflow = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                overflow = true;
+                continue;
+            }
+            Path path = dir.resolve((Path) event.context());
+            touched.add(path);
+            if (event.kind() == ENTRY_CREATE && Files.isDirectory(path) && walker.acceptsDirectory(root, path)) {
+                // files may have been created before the new directory was registered
+                walker.walk(path, subDir -> register(watchService, subDir), touched::add);
+            }
+        }
+        if (!key.reset()) {
+            directories.remove(key);
+        }
+        return overflow;
+    }
+
+    private void register(WatchService watchService, Path dir) {
+        try {
+            directories.put(dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), dir);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void update(Set<Path> touched) {
+        Map<String, Path> toAnalyse = new LinkedHashMap<>();
+        List<String> removed = new ArrayList<>();
+        for (Path path : touched) {
+            String fileName = walker.getFileName(root, path);
+            if (walker.accepts(root, path)) {
+                toAnalyse.put(fileName, path);
+            } else if (Files.isDirectory(path) && walker.acceptsDirectory(root, path)) {
+                // e.g. its attributes changed: analyse its files again and drop only those that are gone
+                Set<String> present = new HashSet<>();
+                walker.walk(path, file -> {
+                    if (walker.accepts(root, file)) {
+                        String name = walker.getFileName(root, file);
+                        present.add(name);
+                        toAnalyse.put(name, file);
+                    }
+                });
+                removeDirectory(fileName, present, removed);
+            } else if (analyses.remove(fileName) != null) {
+                removed.add(fileName);
+            } else {
+                // a deleted or excluded directory takes its files with it
+                removeDirectory(fileName, Set.of(), removed);
+            }
+        }
+        List<String> analysed = new ArrayList<>();
+        for (Map.Entry<String, Path> file : toAnalyse.entrySet()) {
+            analyses.put(file.getKey(), FileAnalyser.analyse(file.getValue(), projects, encoding));
+            analysed.add(file.getKey());
+        }
+
+        List<String> changedFiles = new ArrayList<>(analysed);
+        changedFiles.addAll(removed);
+        List<String> previousNames = graph.getFileNames();
+        AnalysisResultStore previous = results;
+        graph = graph.update(analyses, changedFiles);
+        results = graph.getFileNames() == previousNames
+                ? previous.update(analyses, graph, analysed)
+                : AnalysisResultStore.build(analyses, graph, projects);
+        List<String> changed = new ArrayList<>();
+        removed.clear();
+        results.diff(previous, changed, removed);
+        if (!changed.isEmpty() || !removed.isEmpty()) {
+            listener.update(results, changed, removed);
+        }
+    }
+
+    /**
+     * Removes the analyses of the files below the directory {@code dirName} except those in {@code kept}.
+     */
+    private void removeDirectory(String dirName, Set<String> kept, List<String> removed) {
+        String prefix = dirName + "/";
+        for (Iterator<String> it = analyses.keySet().iterator(); it.hasNext(); ) {
+            String name = it.next();
+            if (name.startsWith(prefix) && !kept.contains(name)) {
+                it.remove();
+                removed.add(name);
+            }
+        }
+    }
+}
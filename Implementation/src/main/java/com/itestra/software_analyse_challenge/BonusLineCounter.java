@@ -0,0 +1,179 @@
+package com.itestra.software_analyse_challenge;
+
+/**
+ * Counts code lines outside of comments, text block content and simple getters of the form
+ * {@code public <type> get<name>() { return (this.)?<field>; }}, which may span several lines. A text block
+ * counts like a string literal, on the lines it opens and closes.
+ */
+public class BonusLineCounter implements LineAnalyser {
+
+    private int count;
+    private boolean inGetter;
+    private int braceDepth;
+
+    public BonusLineCounter() {
+    }
+
+    /**
+     * A counter continuing inside a getter, or not, as another counter reported it after the previous line.
+     */
+    BonusLineCounter(boolean inGetter, int braceDepth) {
+        this.inGetter = inGetter;
+        this.braceDepth = braceDepth;
+    }
+
+    @Override
+    public void analyseLine(SourceLine line) {
+        if (line.getKind() != SourceLine.Kind.CODE || line.isTextBlockContent()) return;
+        CharSequence code = line.getCode();
+
+        if (inGetter) {
+            if (!isGetterBody(code) && !isSingleChar(code, '{') && !isSingleChar(code, '}')) {
+                inGetter = false;
+                count += 2;
+                return;
+            }
+
+            braceDepth += countBraces(code);
+            if (braceDepth <= 0) {
+                inGetter = false;
+                braceDepth = 0;
+            }
+            return;
+        }
+
+        // the code is trimmed, so most lines are ruled out by their first and last characters
+        if (code.charAt(0) == 'p' && endsWithEmptyParameters(code) && isGetterHeader(code)) {
+            inGetter = true;
+            braceDepth = countBraces(code);
+            return;
+        }
+
+        count++;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    boolean isInGetter() {
+        return inGetter;
+    }
+
+    int getBraceDepth() {
+        return braceDepth;
+    }
+
+    private static int countBraces(CharSequence line) {
+        int count = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '{') count++;
+            else if (c == '}') count--;
+        }
+        return count;
+    }
+
+    private static boolean isSingleChar(CharSequence line, char c) {
+        return line.length() == 1 && line.charAt(0) == c;
+    }
+
+    /**
+     * Whether {@code line} ends with {@code ()} or {@code () {}, as every getter header does.
+     */
+    private static boolean endsWithEmptyParameters(CharSequence line) {
+        int i = line.length() - 1;
+        if (line.charAt(i) == '{') {
+            i = skipWhitespaceBackwards(line, i - 1);
+        }
+        if (i < 0 || line.charAt(i) != ')') return false;
+        i = skipWhitespaceBackwards(line, i - 1);
+        return i >= 0 && line.charAt(i) == '(';
+    }
+
+    private static int skipWhitespaceBackwards(CharSequence line, int i) {
+        while (i >= 0 && isWhitespace(line, i)) i--;
+        return i;
+    }
+
+    /**
+     * Matches {@code \s*public\s+[\w<>\[\]]+\s+get\w+\s*\(\s*\)\s*\{?\s*}.
+     */
+    static boolean isGetterHeader(CharSequence line) {
+        int length = line.length();
+        int i = skipWhitespace(line, 0);
+        i = expect(line, i, "public");
+        if (i < 0 || !isWhitespace(line, i)) return false;
+        i = skipWhitespace(line, i);
+        int typeStart = i;
+        while (i < length && (isWordChar(line.charAt(i)) || "<>[]".indexOf(line.charAt(i)) >= 0)) i++;
+        if (i == typeStart || !isWhitespace(line, i)) return false;
+        i = skipWhitespace(line, i);
+        i = expect(line, i, "get");
+        if (i < 0) return false;
+        int nameStart = i;
+        i = skipWords(line, i);
+        if (i == nameStart) return false;
+        i = skipWhitespace(line, i);
+        i = expect(line, i, "(");
+        if (i < 0) return false;
+        i = skipWhitespace(line, i);
+        i = expect(line, i, ")");
+        if (i < 0) return false;
+        i = skipWhitespace(line, i);
+        if (i < length && line.charAt(i) == '{') i++;
+        return skipWhitespace(line, i) == length;
+    }
+
+    /**
+     * Matches {@code \s*return\s+(this\.)?\w+\s*;\s*}?\s*}.
+     */
+    static boolean isGetterBody(CharSequence line) {
+        int length = line.length();
+        int i = skipWhitespace(line, 0);
+        i = expect(line, i, "return");
+        if (i < 0 || !isWhitespace(line, i)) return false;
+        i = skipWhitespace(line, i);
+        int afterThis = expect(line, i, "this.");
+        if (afterThis >= 0 && afterThis < length && isWordChar(line.charAt(afterThis))) {
+            i = afterThis;
+        }
+        int fieldStart = i;
+        i = skipWords(line, i);
+        if (i == fieldStart) return false;
+        i = skipWhitespace(line, i);
+        i = expect(line, i, ";");
+        if (i < 0) return false;
+        i = skipWhitespace(line, i);
+        if (i < length && line.charAt(i) == '}') i++;
+        return skipWhitespace(line, i) == length;
+    }
+
+    private static int expect(CharSequence line, int i, String token) {
+        if (i + token.length() > line.length()) return -1;
+        for (int k = 0; k < token.length(); k++) {
+            if (line.charAt(i + k) != token.charAt(k)) return -1;
+        }
+        return i + token.length();
+    }
+
+    private static int skipWhitespace(CharSequence line, int i) {
+        while (isWhitespace(line, i)) i++;
+        return i;
+    }
+
+    private static int skipWords(CharSequence line, int i) {
+        while (i < line.length() && isWordChar(line.charAt(i))) i++;
+        return i;
+    }
+
+    private static boolean isWhitespace(CharSequence line, int i) {
+        if (i >= line.length()) return false;
+        char c = line.charAt(i);
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+}
@@ -0,0 +1,259 @@
+package com.itestra.software_analyse_challenge;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Predicate;
+
+/**
+ * Counts the source lines and bonus lines of one large file and collects its dependencies in parallel, with the
+ * same result as {@link SourceLineCounter}, {@link BonusLineCounter} and {@link DependencyCollector} reading it
+ * sequentially.
+ * <p>
+ * The file is split into chunks ending at a {@code \n}, and every chunk is lexed and counted on the fork-join
+ * pool as if it started in code outside of a getter. That guess only fails where a block comment, text block
+ * or getter crosses the start of a chunk. The chunks are then stitched in order: if the state carried in from
+ * the previous chunk is not the guessed one, the chunk is counted again from the real state, in lockstep with
+ * the guess, until both reach the same state; from there on the count of the parallel pass is exact. Source
+ * lines only depend on the text of each line and never need to be counted again. Dependencies depend on the
+ * lexer state only, so a chunk starting inside a block comment or text block is analysed again as a whole, which
+ * is rare; the dependencies of the chunks are then merged in order.
+ */
+public class ChunkedLineCounter {
+
+    /**
+     * Files of at least this size are split by {@link FileAnalyser} and {@link LineNumberCounter}.
+     */
+    public static final long PARALLEL_THRESHOLD = 8 << 20;
+
+    /**
+     * Chunks fit into the buffer {@link SourceDecoder} keeps per thread unless a line crosses the end by
+     * more than 64 KiB.
+     */
+    static final int CHUNK_SIZE = SourceDecoder.RETAINED_BUFFER_SIZE - (64 << 10);
+
+    // carried state of a fresh lexer and counter: in code, outside of a getter
+    private static final long START = 0;
+
+    private final int sourceLines;
+    private final int bonusLines;
+    private final DependencyCollector dependencies;
+
+    private ChunkedLineCounter(int sourceLines, int bonusLines, DependencyCollector dependencies) {
+        this.sourceLines = sourceLines;
+        this.bonusLines = bonusLines;
+        this.dependencies = dependencies;
+    }
+
+    public static ChunkedLineCounter count(Path file, Charset charset) {
+        return count(file, ProjectRegistry.DEFAULT, charset);
+    }
+
+    public static ChunkedLineCounter count(Path file, ProjectRegistry registry, Charset charset) {
+        try {
+            return count(file, registry, charset, CHUNK_SIZE);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return new ChunkedLineCounter(0, 0, new DependencyCollector(registry));
+        }
+    }
+
+    static ChunkedLineCounter count(Path file, Charset charset, int chunkSize) throws IOException {
+        return count(file, ProjectRegistry.DEFAULT, charset, chunkSize);
+    }
+
+    static ChunkedLineCounter count(Path file, ProjectRegistry registry, Charset charset, int chunkSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            byte[] head = new byte[3];
+            int headLength = Math.max(0, channel.read(ByteBuffer.wrap(head), 0));
+            Charset marked = SourceDecoder.byteOrderMarkCharset(head, headLength);
+            Charset fileCharset = marked != null ? marked : charset;
+            // a \n byte is only a line break in charsets that encode ASCII as single bytes
+            long[] bounds = SourceDecoder.isAsciiCompatible(fileCharset) ? chunkBounds(channel, size, chunkSize) : new long[]{0, size};
+
+            List<Chunk> chunks = new ArrayList<>();
+            List<ForkJoinTask<?>> tasks = new ArrayList<>();
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                Chunk chunk = new Chunk(channel, bounds[i], bounds[i + 1], i == 0 ? charset : fileCharset, i == 0, registry);
+                chunks.add(chunk);
+                tasks.add(ForkJoinTask.adapt(() -> chunk.count(START)));
+            }
+            ForkJoinTask.invokeAll(tasks);
+
+            int sourceLines = 0;
+            int bonusLines = 0;
+            DependencyCollector dependencies = new DependencyCollector(registry);
+            long carry = START;
+            for (Chunk chunk : chunks) {
+                sourceLines += chunk.sourceLines;
+                if ((carry & 0xff) != (START & 0xff)) {
+                    // lexed from the wrong state, so the dependencies may be wrong as well
+                    chunk.count(carry);
+                }
+                dependencies.addAll(chunk.dependencies);
+                if (chunk.startCarry == carry) {
+                    bonusLines += chunk.bonusLines;
+                    carry = chunk.carry;
+                    continue;
+                }
+                Recount recount = new Recount(carry);
+                chunk.readLines(recount);
+                if (recount.converged) {
+                    bonusLines += chunk.bonusLines + recount.actual.getCount() - recount.guessed.getCount();
+                    carry = chunk.carry;
+                } else {
+                    bonusLines += recount.actual.getCount();
+                    carry = carry(recount.actualLexer, recount.actual);
+                }
+            }
+            return new ChunkedLineCounter(sourceLines, bonusLines, dependencies);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    public int getSourceLines() {
+        return sourceLines;
+    }
+
+    public int getBonusLines() {
+        return bonusLines;
+    }
+
+    public DependencyCollector getDependencies() {
+        return dependencies;
+    }
+
+    /**
+     * Offsets of the chunk starts, each directly after the first {@code \n} from {@code chunkSize} bytes after
+     * the previous one, followed by {@code size}.
+     */
+    private static long[] chunkBounds(FileChannel channel, long size, int chunkSize) throws IOException {
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        ByteBuffer window = ByteBuffer.allocate(8 << 10);
+        long position = chunkSize;
+        while (position < size) {
+            long lineFeed = nextLineFeed(channel, position, size, window);
+            if (lineFeed < 0 || lineFeed + 1 >= size) {
+                break;
+            }
+            bounds.add(lineFeed + 1);
+            position = lineFeed + 1 + chunkSize;
+        }
+        bounds.add(size);
+        return bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static long nextLineFeed(FileChannel channel, long position, long size, ByteBuffer window) throws IOException {
+        while (position < size) {
+            window.clear();
+            int read = channel.read(window, position);
+            if (read <= 0) {
+                return -1;
+            }
+            for (int i = 0; i < read; i++) {
+                if (window.get(i) == '\n') {
+                    return position + i;
+                }
+            }
+            position += read;
+        }
+        return -1;
+    }
+
+    /**
+     * The state carried to the next line as one value: the lexer state, whether a getter is open and its brace
+     * depth, which is irrelevant outside of getters.
+     */
+    private static long carry(JavaLexer lexer, BonusLineCounter counter) {
+        if (!counter.isInGetter()) {
+            return lexer.getState();
+        }
+        return (long) counter.getBraceDepth() << 32 | 1 << 8 | lexer.getState();
+    }
+
+    private static final class Chunk {
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+        private final Charset charset;
+        private final boolean fileStart;
+        private final ProjectRegistry registry;
+        private int sourceLines;
+        private int bonusLines;
+        private DependencyCollector dependencies;
+        // the state the chunk was counted from and the state it carries to the next one
+        private long startCarry;
+        private long carry;
+
+        Chunk(FileChannel channel, long start, long end, Charset charset, boolean fileStart, ProjectRegistry registry) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+            this.charset = charset;
+            this.fileStart = fileStart;
+            this.registry = registry;
+        }
+
+        void count(long startCarry) {
+            JavaLexer lexer = new JavaLexer((int) (startCarry & 0xff));
+            SourceLineCounter sourceLineCounter = new SourceLineCounter();
+            BonusLineCounter bonusLineCounter = new BonusLineCounter((startCarry & 1 << 8) != 0, (int) (startCarry >> 32));
+            DependencyCollector dependencyCollector = new DependencyCollector(registry);
+            readLines(line -> {
+                SourceLine sourceLine = lexer.next(line);
+                sourceLineCounter.analyseLine(sourceLine);
+                bonusLineCounter.analyseLine(sourceLine);
+                dependencyCollector.analyseLine(sourceLine);
+                return true;
+            });
+            this.startCarry = startCarry;
+            sourceLines = sourceLineCounter.getCount();
+            bonusLines = bonusLineCounter.getCount();
+            dependencies = dependencyCollector;
+            carry = carry(lexer, bonusLineCounter);
+        }
+
+        void readLines(Predicate<String> lines) {
+            try {
+                SourceDecoder.readLines(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start), charset, fileStart, lines);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Counts the bonus lines of a chunk from the state actually carried in and from the guessed one, until both
+     * carry the same state.
+     */
+    private static final class Recount implements Predicate<String> {
+        private final JavaLexer actualLexer;
+        private final BonusLineCounter actual;
+        private final JavaLexer guessedLexer = new JavaLexer();
+        private final BonusLineCounter guessed = new BonusLineCounter();
+        private boolean converged;
+
+        Recount(long carry) {
+            this.actualLexer = new JavaLexer((int) (carry & 0xff));
+            this.actual = new BonusLineCounter((carry & 1 << 8) != 0, (int) (carry >> 32));
+        }
+
+        @Override
+        public boolean test(String line) {
+            actual.analyseLine(actualLexer.next(line));
+            guessed.analyseLine(guessedLexer.next(line));
+            converged = carry(actualLexer, actual) == carry(guessedLexer, guessed);
+            return !converged;
+        }
+    }
+}
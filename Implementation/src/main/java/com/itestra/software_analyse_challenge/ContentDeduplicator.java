@@ -0,0 +1,159 @@
+package com.itestra.software_analyse_challenge;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Analyses byte-identical files once, for {@code --dedup}, and shares the {@link FileAnalysis} between them.
+ * Everything in it, the counts as well as package, imports and direct project dependencies, only depends on
+ * the content; transitive dependencies are still resolved per file.
+ * <p>
+ * Only files whose size has been seen before are hashed, see {@link ContentHash}. The first file of every size
+ * is analysed without hashing and only hashed once a second file of the same size turns up, unless it is inside
+ * an archive. Two identical
+ * files analysed at the same time may both be analysed, which costs time but does not change the result.
+ */
+public class ContentDeduplicator {
+
+    public static final int DEFAULT_SUMMARY_CLUSTERS = 10;
+
+    private static final int SUMMARY_FILE_NAMES = 3;
+
+    private final Map<Long, FirstOfSize> firstOfSize = new ConcurrentHashMap<>();
+    private final Map<ContentHash, FileAnalysis> analyses = new ConcurrentHashMap<>();
+    private final Map<ContentHash, List<String>> clusters = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the analysis of a file with the same content as {@code file} if there is one, otherwise the one
+     * {@code analyser} computes for it. May be called from several threads at once.
+     */
+    public FileAnalysis analyse(String fileName, Path file, Supplier<FileAnalysis> analyser) {
+        try {
+            FirstOfSize newFirst = new FirstOfSize(fileName, file);
+            FirstOfSize first = firstOfSize.putIfAbsent(Files.size(file), newFirst);
+            if (first == null) {
+                if (file.getFileSystem() != FileSystems.getDefault()) {
+                    // an archive may be closed by the time another file of this size turns up
+                    newFirst.hash();
+                }
+                FileAnalysis analysis = analyser.get();
+                newFirst.analysed(analysis);
+                return analysis;
+            }
+
+            ContentHash hash = ContentHash.of(file);
+            first.hash();
+            addToCluster(hash, fileName);
+            FileAnalysis analysis = analyses.get(hash);
+            if (analysis != null) {
+                return analysis;
+            }
+            analysis = analyser.get();
+            FileAnalysis previous = analyses.putIfAbsent(hash, analysis);
+            return previous != null ? previous : analysis;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return analyser.get();
+        }
+    }
+
+    private void addToCluster(ContentHash hash, String fileName) {
+        clusters.computeIfAbsent(hash, h -> Collections.synchronizedList(new ArrayList<>())).add(fileName);
+    }
+
+    /**
+     * The sorted file names of every content that occurs more than once, the clusters with the most duplicated
+     * bytes first.
+     */
+    public List<List<String>> getClusters() {
+        List<Map.Entry<ContentHash, List<String>>> duplicated = new ArrayList<>();
+        for (Map.Entry<ContentHash, List<String>> cluster : clusters.entrySet()) {
+            if (cluster.getValue().size() > 1) {
+                duplicated.add(cluster);
+            }
+        }
+        duplicated.sort(Comparator.comparingLong((Map.Entry<ContentHash, List<String>> e) -> duplicatedBytes(e.getKey(), e.getValue()))
+                .reversed()
+                .thenComparing(e -> Collections.min(e.getValue())));
+        List<List<String>> result = new ArrayList<>();
+        for (Map.Entry<ContentHash, List<String>> cluster : duplicated) {
+            List<String> fileNames = new ArrayList<>(cluster.getValue());
+            Collections.sort(fileNames);
+            result.add(fileNames);
+        }
+        return result;
+    }
+
+    /**
+     * Prints how many files were duplicates and the first file names of the {@code limit} largest clusters.
+     */
+    public void printSummary(PrintStream out, int limit) {
+        int contents = 0;
+        int copies = 0;
+        long bytes = 0;
+        for (Map.Entry<ContentHash, List<String>> cluster : clusters.entrySet()) {
+            if (cluster.getValue().size() > 1) {
+                contents++;
+                copies += cluster.getValue().size() - 1;
+                bytes += duplicatedBytes(cluster.getKey(), cluster.getValue());
+            }
+        }
+        out.println("Found " + copies + " duplicate files of " + contents + " distinct contents, " + bytes + " bytes not analysed again");
+        List<List<String>> sorted = getClusters();
+        for (List<String> cluster : sorted.subList(0, Math.min(limit, sorted.size()))) {
+            String fileNames = String.join(", ", cluster.subList(0, Math.min(SUMMARY_FILE_NAMES, cluster.size())));
+            if (cluster.size() > SUMMARY_FILE_NAMES) {
+                fileNames += " and " + (cluster.size() - SUMMARY_FILE_NAMES) + " more";
+            }
+            out.println("  " + cluster.size() + " x " + fileNames);
+        }
+    }
+
+    private static long duplicatedBytes(ContentHash hash, List<String> fileNames) {
+        return hash.getSize() * (fileNames.size() - 1);
+    }
+
+    /**
+     * The first file seen of a size. It is hashed at most once, when another file of its size is seen, and from
+     * then on its analysis can be found by content like that of every later file.
+     */
+    private final class FirstOfSize {
+        private final String fileName;
+        private final Path file;
+        private ContentHash hash;
+        private FileAnalysis analysis;
+
+        FirstOfSize(String fileName, Path file) {
+            this.fileName = fileName;
+            this.file = file;
+        }
+
+        synchronized void analysed(FileAnalysis analysis) {
+            this.analysis = analysis;
+            if (hash != null) {
+                analyses.putIfAbsent(hash, analysis);
+            }
+        }
+
+        synchronized void hash() throws IOException {
+            if (hash != null) {
+                return;
+            }
+            hash = ContentHash.of(file);
+            addToCluster(hash, fileName);
+            if (analysis != null) {
+                analyses.putIfAbsent(hash, analysis);
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.itestra.software_analyse_challenge;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The size and 128-bit MurmurHash3 (x64 variant, seed 0) of a file's content, to find identical files without
+ * comparing them byte by byte. Not cryptographic: a collision would make two files share one result.
+ */
+public final class ContentHash {
+
+    private static final int BUFFER_SIZE = 1 << 13;
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    private final long size;
+    private final long hash1;
+    private final long hash2;
+
+    private ContentHash(long size, long hash1, long hash2) {
+        this.size = size;
+        this.hash1 = hash1;
+        this.hash2 = hash2;
+    }
+
+    public static ContentHash of(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return of(in, 0);
+        }
+    }
+
+    static ContentHash of(InputStream in, int seed) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        ByteBuffer words = ByteBuffer.wrap(buffer).order(ByteOrder.LITTLE_ENDIAN);
+        long h1 = seed & 0xffffffffL;
+        long h2 = h1;
+        long size = 0;
+        int filled = 0;
+        while (true) {
+            int read = in.read(buffer, filled, buffer.length - filled);
+            if (read < 0) {
+                break;
+            }
+            filled += read;
+            size += read;
+            int blocks = filled & ~15;
+            for (int i = 0; i < blocks; i += 16) {
+                h1 ^= mixK1(words.getLong(i));
+                h1 = Long.rotateLeft(h1, 27) + h2;
+                h1 = h1 * 5 + 0x52dce729;
+                h2 ^= mixK2(words.getLong(i + 8));
+                h2 = Long.rotateLeft(h2, 31) + h1;
+                h2 = h2 * 5 + 0x38495ab5;
+            }
+            System.arraycopy(buffer, blocks, buffer, 0, filled - blocks);
+            filled -= blocks;
+        }
+
+        long k1 = 0;
+        long k2 = 0;
+        for (int i = filled - 1; i >= 8; i--) {
+            k2 = k2 << 8 | (buffer[i] & 0xff);
+        }
+        for (int i = Math.min(filled, 8) - 1; i >= 0; i--) {
+            k1 = k1 << 8 | (buffer[i] & 0xff);
+        }
+        if (filled > 8) {
+            h2 ^= mixK2(k2);
+        }
+        if (filled > 0) {
+            h1 ^= mixK1(k1);
+        }
+
+        h1 ^= size;
+        h2 ^= size;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        h2 += h1;
+        return new ContentHash(size, h1, h2);
+    }
+
+    private static long mixK1(long k1) {
+        return Long.rotateLeft(k1 * C1, 31) * C2;
+    }
+
+    private static long mixK2(long k2) {
+        return Long.rotateLeft(k2 * C2, 33) * C1;
+    }
+
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        return k ^ k >>> 33;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    long getHash1() {
+        return hash1;
+    }
+
+    long getHash2() {
+        return hash2;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ContentHash)) return false;
+        ContentHash other = (ContentHash) o;
+        return size == other.size && hash1 == other.hash1 && hash2 == other.hash2;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) hash1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", hash1, hash2);
+    }
+}
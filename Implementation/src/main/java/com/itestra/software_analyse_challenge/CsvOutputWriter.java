@@ -0,0 +1,66 @@
+package com.itestra.software_analyse_challenge;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * RFC 4180 CSV with a header row. The dependencies are joined with {@code ;} and a missing bonus count is
+ * an empty field.
+ */
+public class CsvOutputWriter implements OutputWriter {
+
+    private final Writer out;
+    private boolean headerWritten;
+
+    public CsvOutputWriter(Writer out) {
+        this.out = out;
+    }
+
+    private void writeHeader() throws IOException {
+        if (!headerWritten) {
+            out.write("file,source_lines,source_lines_bonus,dependencies\r\n");
+            headerWritten = true;
+        }
+    }
+
+    @Override
+    public void write(String fileName, Output output) throws IOException {
+        writeHeader();
+        writeField(fileName);
+        out.write(',');
+        out.write(output.getLineNumber());
+        out.write(',');
+        if (output.hasLineNumberBonus()) {
+            out.write(output.getLineNumberBonus());
+        }
+        out.write(',');
+        writeField(String.join(";", output.getDependencyList()));
+        out.write("\r\n");
+    }
+
+    /**
+     * Writes a {@code # commit <id>} line, which CSV readers can be told to skip as a comment.
+     */
+    @Override
+    public void commit(String commit) throws IOException {
+        out.write("# commit ");
+        out.write(commit);
+        out.write("\r\n");
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value.indexOf(',') == -1 && value.indexOf('"') == -1 && value.indexOf('\n') == -1 && value.indexOf('\r') == -1) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writeHeader();
+        out.flush();
+    }
+}
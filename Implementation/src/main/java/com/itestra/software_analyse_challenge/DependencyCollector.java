@@ -0,0 +1,223 @@
+package com.itestra.software_analyse_challenge;
+
+import java.util.*;
+
+public class DependencyCollector implements LineAnalyser {
+    private final ProjectRegistry registry;
+    private final Set<String> projects = new HashSet<>();
+    private final Set<String> imports = new LinkedHashSet<>();
+    private final Set<String> wildcardImports = new LinkedHashSet<>();
+    private final Set<String> staticImports = new LinkedHashSet<>();
+    private final Set<String> qualifiedTypes = new LinkedHashSet<>();
+    private String packageName = "";
+
+    public DependencyCollector() {
+        this(ProjectRegistry.DEFAULT);
+    }
+
+    public DependencyCollector(ProjectRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void analyseLine(SourceLine line) {
+        if (line.getKind() != SourceLine.Kind.CODE || line.isTextBlockContent()) {
+            // text block content is a string, even where it reads like an import or a qualified type
+            return;
+        }
+        if (line.codeStartsWith("package ")) {
+            packageName = statementBody(line.getCode(), "package ".length());
+            return;
+        }
+        CharSequence code = line.getCode();
+        if (!line.codeStartsWith("import ")) {
+            collectQualifiedTypes(line);
+            return;
+        }
+        if (line.codeStartsWith("import static ")) {
+            String member = statementBody(code, "import static ".length());
+            int lastDot = member.lastIndexOf('.');
+            if (lastDot > 0) {
+                staticImports.add(member.substring(0, lastDot));
+            }
+            return;
+        }
+        if (isWildcard(code)) {
+            String wildcard = statementBody(code, "import ".length());
+            if (wildcard.length() > 2) {
+                wildcardImports.add(wildcard.substring(0, wildcard.length() - 2));
+            }
+            return;
+        }
+        String importStmt = statementBody(code, "import ".length());
+        if (importStmt.isEmpty()) return;
+        imports.add(importStmt);
+        String project = registry.resolve(importStmt);
+        if (project != null) {
+            projects.add(project);
+        }
+    }
+
+    /**
+     * Collects names like {@code spark.route.Routes}: a chain of identifiers starting with a lowercase letter
+     * that ends in one starting with an uppercase letter, outside of string and char literals. By naming
+     * convention these are types qualified by their package; whether such a package exists is only known once
+     * the whole tree is analysed, see {@link ImportGraph}. The line is searched for dots; only a dot followed by
+     * an uppercase letter leads to looking for literals before it and at the chain it ends, so most lines are
+     * not scanned character by character.
+     */
+    private void collectQualifiedTypes(SourceLine line) {
+        CharSequence code = line.getCode();
+        int length = code.length();
+        int scanned = 0;
+        int literalEnd = 0;
+        for (int dot = line.codeIndexOf('.', 0); dot >= 0; dot = line.codeIndexOf('.', dot + 1)) {
+            if (dot + 1 == length || !Character.isUpperCase(code.charAt(dot + 1))) {
+                continue;
+            }
+            while (scanned < dot) {
+                char c = code.charAt(scanned);
+                if (c == '"' || c == '\'') {
+                    literalEnd = skipLiteral(code, scanned);
+                    scanned = literalEnd;
+                } else {
+                    scanned++;
+                }
+            }
+            if (literalEnd > dot) {
+                // inside a literal, go on after it
+                dot = literalEnd - 1;
+                continue;
+            }
+            dot = collectQualifiedType(code, literalEnd, dot) - 1;
+        }
+    }
+
+    /**
+     * Records the name ending with the identifier after {@code dot} if the identifiers before it, back to
+     * {@code limit} at most, are lowercase segments of a chain that does not continue a call or a field access
+     * on a type, like {@code foo().bar.Baz} or {@code Outer.Inner}. Returns the index after the name.
+     */
+    private int collectQualifiedType(CharSequence code, int limit, int dot) {
+        int end = dot + 2;
+        while (end < code.length() && Character.isJavaIdentifierPart(code.charAt(end))) {
+            end++;
+        }
+        int start = dot;
+        while (true) {
+            int segmentStart = start;
+            while (segmentStart > limit && Character.isJavaIdentifierPart(code.charAt(segmentStart - 1))) {
+                segmentStart--;
+            }
+            if (segmentStart == start || !Character.isLowerCase(code.charAt(segmentStart))) {
+                return end;
+            }
+            start = segmentStart;
+            if (start == limit || code.charAt(start - 1) != '.') {
+                break;
+            }
+            start--;
+        }
+        String typeName = code.subSequence(start, end).toString();
+        if (!imports.contains(typeName)) {
+            qualifiedTypes.add(typeName);
+        }
+        return end;
+    }
+
+    /**
+     * Returns the index after the string or char literal starting at {@code start}, or the end of the line.
+     */
+    private static int skipLiteral(CharSequence code, int start) {
+        char quote = code.charAt(start);
+        int i = start + 1;
+        while (i < code.length()) {
+            char c = code.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == quote) {
+                return i + 1;
+            } else {
+                i++;
+            }
+        }
+        return code.length();
+    }
+
+    /**
+     * Adds what {@code next} collected from the lines following the ones this collector has seen, as if it had
+     * seen them itself.
+     */
+    public void addAll(DependencyCollector next) {
+        if (!next.packageName.isEmpty()) {
+            packageName = next.packageName;
+        }
+        projects.addAll(next.projects);
+        for (String typeName : next.qualifiedTypes) {
+            if (!imports.contains(typeName)) {
+                qualifiedTypes.add(typeName);
+            }
+        }
+        imports.addAll(next.imports);
+        wildcardImports.addAll(next.wildcardImports);
+        staticImports.addAll(next.staticImports);
+    }
+
+    private static boolean isWildcard(CharSequence code) {
+        int length = code.length();
+        return length >= 3 && code.charAt(length - 1) == ';' && code.charAt(length - 2) == '*' && code.charAt(length - 3) == '.';
+    }
+
+    /**
+     * Projects imported directly by this file.
+     */
+    public List<String> getDependencies() {
+        return new ArrayList<>(projects);
+    }
+
+    /**
+     * Fully qualified names of all single-type imports, in order of appearance.
+     */
+    public List<String> getImports() {
+        return new ArrayList<>(imports);
+    }
+
+    /**
+     * Packages or types whose members are all imported with {@code import a.b.*;}, in order of appearance.
+     */
+    public List<String> getWildcardImports() {
+        return new ArrayList<>(wildcardImports);
+    }
+
+    /**
+     * Types whose static members are imported, in order of appearance.
+     */
+    public List<String> getStaticImports() {
+        return new ArrayList<>(staticImports);
+    }
+
+    /**
+     * Types used with their fully qualified name instead of an import, in order of appearance.
+     */
+    public List<String> getQualifiedTypes() {
+        return new ArrayList<>(qualifiedTypes);
+    }
+
+    public String getPackageName() {
+        return packageName;
+    }
+
+    private static String statementBody(CharSequence code, int start) {
+        int end = start;
+        while (end < code.length() && code.charAt(end) != ';') {
+            end++;
+        }
+        while (start < end && code.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && code.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return code.subSequence(start, end).toString();
+    }
+}
@@ -0,0 +1,99 @@
+package com.itestra.software_analyse_challenge;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+/**
+ * Reads a source file once, lexes each line once and feeds it to all given {@link LineAnalyser}s.
+ * Files are decoded by {@link SourceDecoder}, as UTF-8 unless another charset is given.
+ */
+public class FileAnalyser {
+
+    public static void analyse(File file, LineAnalyser... analysers) {
+        analyse(file.toPath(), analysers);
+    }
+
+    public static void analyse(Path file, LineAnalyser... analysers) {
+        try (InputStream in = Files.newInputStream(file)) {
+            analyse(in, analysers);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public static void analyse(InputStream in, LineAnalyser... analysers) throws IOException {
+        analyse(in, SourceDecoder.DEFAULT_CHARSET, analysers);
+    }
+
+    public static void analyse(InputStream in, Charset charset, LineAnalyser... analysers) throws IOException {
+        JavaLexer lexer = new JavaLexer();
+        SourceDecoder.readLines(in, charset, line -> {
+            SourceLine sourceLine = lexer.next(line);
+            for (LineAnalyser analyser : analysers) {
+                analyser.analyseLine(sourceLine);
+            }
+        });
+    }
+
+    public static FileAnalysis analyse(File file) {
+        return analyse(file.toPath());
+    }
+
+    public static FileAnalysis analyse(Path file) {
+        return analyse(file, ProjectRegistry.DEFAULT);
+    }
+
+    public static FileAnalysis analyse(Path file, ProjectRegistry registry) {
+        return analyse(file, registry, SourceDecoder.DEFAULT_CHARSET);
+    }
+
+    /**
+     * Analyses {@code file}, in chunks in parallel if it has at least {@link ChunkedLineCounter#PARALLEL_THRESHOLD}
+     * bytes.
+     */
+    public static FileAnalysis analyse(Path file, ProjectRegistry registry, Charset charset) {
+        return analyse(file, registry, charset, ChunkedLineCounter.PARALLEL_THRESHOLD, ChunkedLineCounter.CHUNK_SIZE);
+    }
+
+    static FileAnalysis analyse(Path file, ProjectRegistry registry, Charset charset, long parallelThreshold, int chunkSize) {
+        try {
+            if (Files.size(file) >= parallelThreshold) {
+                ChunkedLineCounter counter = ChunkedLineCounter.count(file, registry, charset, chunkSize);
+                return toAnalysis(counter.getSourceLines(), counter.getBonusLines(), counter.getDependencies());
+            }
+            try (InputStream in = Files.newInputStream(file)) {
+                return analyse(in, registry, charset);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return new FileAnalysis(0, 0, "", new ArrayList<>(), new ArrayList<>());
+        }
+    }
+
+    public static FileAnalysis analyse(InputStream in) throws IOException {
+        return analyse(in, ProjectRegistry.DEFAULT);
+    }
+
+    public static FileAnalysis analyse(InputStream in, ProjectRegistry registry) throws IOException {
+        return analyse(in, registry, SourceDecoder.DEFAULT_CHARSET);
+    }
+
+    public static FileAnalysis analyse(InputStream in, ProjectRegistry registry, Charset charset) throws IOException {
+        SourceLineCounter lineCounter = new SourceLineCounter();
+        DependencyCollector dependencyCollector = new DependencyCollector(registry);
+        BonusLineCounter bonusLineCounter = new BonusLineCounter();
+        analyse(in, charset, lineCounter, dependencyCollector, bonusLineCounter);
+        return toAnalysis(lineCounter.getCount(), bonusLineCounter.getCount(), dependencyCollector);
+    }
+
+    private static FileAnalysis toAnalysis(int lineNumber, int lineNumberBonus, DependencyCollector dependencyCollector) {
+        return new FileAnalysis(lineNumber, lineNumberBonus, dependencyCollector.getPackageName(), dependencyCollector.getImports(),
+                dependencyCollector.getDependencies(), dependencyCollector.getWildcardImports(), dependencyCollector.getStaticImports(),
+                dependencyCollector.getQualifiedTypes());
+    }
+}
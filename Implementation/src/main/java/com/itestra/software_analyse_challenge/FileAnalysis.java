@@ -0,0 +1,138 @@
+package com.itestra.software_analyse_challenge;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything the single pass over one file yields. The final {@link Output} additionally needs the
+ * dependencies of all other files, see {@link ImportGraph}.
+ */
+public class FileAnalysis {
+    private final int lineNumber;
+    private final int lineNumberBonus;
+    private final String packageName;
+    private final List<String> imports;
+    private final List<String> dependencies;
+    private final List<String> wildcardImports;
+    private final List<String> staticImports;
+    private final List<String> qualifiedTypes;
+
+    public FileAnalysis(int lineNumber, int lineNumberBonus, String packageName, List<String> imports, List<String> dependencies) {
+        this(lineNumber, lineNumberBonus, packageName, imports, dependencies, List.of(), List.of(), List.of());
+    }
+
+    public FileAnalysis(int lineNumber, int lineNumberBonus, String packageName, List<String> imports, List<String> dependencies,
+                        List<String> wildcardImports, List<String> staticImports, List<String> qualifiedTypes) {
+        this.lineNumber = lineNumber;
+        this.lineNumberBonus = lineNumberBonus;
+        this.packageName = packageName;
+        this.imports = imports;
+        this.dependencies = dependencies;
+        this.wildcardImports = wildcardImports;
+        this.staticImports = staticImports;
+        this.qualifiedTypes = qualifiedTypes;
+    }
+
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    public int getLineNumberBonus() {
+        return lineNumberBonus;
+    }
+
+    public String getPackageName() {
+        return packageName;
+    }
+
+    /**
+     * Fully qualified names of the single-type imports of this file.
+     */
+    public List<String> getImports() {
+        return imports;
+    }
+
+    /**
+     * Projects this file imports directly.
+     */
+    public List<String> getDependencies() {
+        return dependencies;
+    }
+
+    /**
+     * Packages or types imported with {@code import a.b.*;}, only resolved with {@code --resolve-imports}.
+     */
+    public List<String> getWildcardImports() {
+        return wildcardImports;
+    }
+
+    /**
+     * Types whose static members this file imports, only resolved with {@code --resolve-imports}.
+     */
+    public List<String> getStaticImports() {
+        return staticImports;
+    }
+
+    /**
+     * Names in code that look like types qualified by their package, e.g. {@code spark.route.Routes}, only
+     * resolved with {@code --resolve-imports}.
+     */
+    public List<String> getQualifiedTypes() {
+        return qualifiedTypes;
+    }
+
+    /**
+     * Writes the analysis in the binary form {@link #read(DataInput)} reads, used by the cache and the
+     * spill files.
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(lineNumber);
+        out.writeInt(lineNumberBonus);
+        out.writeUTF(packageName);
+        writeStrings(out, imports);
+        writeStrings(out, dependencies);
+        writeStrings(out, wildcardImports);
+        writeStrings(out, staticImports);
+        writeStrings(out, qualifiedTypes);
+    }
+
+    public static FileAnalysis read(DataInput in) throws IOException {
+        int lineNumber = in.readInt();
+        int lineNumberBonus = in.readInt();
+        String packageName = in.readUTF();
+        List<String> imports = readStrings(in);
+        List<String> dependencies = readStrings(in);
+        List<String> wildcardImports = readStrings(in);
+        List<String> staticImports = readStrings(in);
+        List<String> qualifiedTypes = readStrings(in);
+        return new FileAnalysis(lineNumber, lineNumberBonus, packageName, imports, dependencies, wildcardImports, staticImports,
+                qualifiedTypes);
+    }
+
+    private static void writeStrings(DataOutput out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static List<String> readStrings(DataInput in) throws IOException {
+        int count = in.readInt();
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(in.readUTF());
+        }
+        return values;
+    }
+
+    public Output toOutput(List<String> dependencies) {
+        Output output = new Output(lineNumber, dependencies);
+        if (lineNumberBonus != lineNumber) {
+            output.lineNumberBonus(lineNumberBonus);
+        }
+        return output;
+    }
+}
@@ -0,0 +1,183 @@
+package com.itestra.software_analyse_challenge;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * An immutable set of file ids in the layout of a roaring bitmap. The ids are grouped by their upper 16 bits,
+ * and the lower 16 bits of a group are kept as a sorted {@code char[]} of at most {@link #MAX_ARRAY_SIZE}
+ * values, or else as a {@code long[]} of 65536 bits. A sparse set takes two bytes per id and a dense one a bit,
+ * and a lookup is a binary search over the groups followed by a binary search or a bit test.
+ */
+public final class FileBitmap {
+
+    public static final FileBitmap EMPTY = new FileBitmap(new char[0], new Object[0], 0);
+
+    /**
+     * Groups with more values are kept as bits, which then take no more space.
+     */
+    static final int MAX_ARRAY_SIZE = 4096;
+
+    private static final int GROUP_WORDS = 1 << 10;
+
+    private final char[] keys;
+    // char[] or long[] per key
+    private final Object[] containers;
+    private final int size;
+
+    private FileBitmap(char[] keys, Object[] containers, int size) {
+        this.keys = keys;
+        this.containers = containers;
+        this.size = size;
+    }
+
+    /**
+     * The set of the bits set in {@code words}, bit {@code i % 64} of {@code words[i / 64]} standing for id
+     * {@code i}.
+     */
+    public static FileBitmap of(long[] words) {
+        Builder builder = new Builder();
+        for (int from = 0; from < words.length; from += GROUP_WORDS) {
+            int to = Math.min(words.length, from + GROUP_WORDS);
+            int count = 0;
+            for (int w = from; w < to; w++) {
+                count += Long.bitCount(words[w]);
+            }
+            if (count > MAX_ARRAY_SIZE) {
+                builder.addGroup((char) (from / GROUP_WORDS), Arrays.copyOf(Arrays.copyOfRange(words, from, to), GROUP_WORDS), count);
+                continue;
+            }
+            for (int w = from; w < to; w++) {
+                long bits = words[w];
+                while (bits != 0) {
+                    builder.add(w * 64 + Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int id) {
+        if (id < 0) {
+            return false;
+        }
+        int group = Arrays.binarySearch(keys, (char) (id >>> 16));
+        if (group < 0) {
+            return false;
+        }
+        Object container = containers[group];
+        if (container instanceof long[]) {
+            return (((long[]) container)[(id & 0xffff) >>> 6] & 1L << id) != 0;
+        }
+        return Arrays.binarySearch((char[]) container, (char) id) >= 0;
+    }
+
+    /**
+     * Calls {@code action} with every id in ascending order.
+     */
+    public void forEach(IntConsumer action) {
+        for (int group = 0; group < keys.length; group++) {
+            int high = keys[group] << 16;
+            Object container = containers[group];
+            if (container instanceof long[]) {
+                long[] words = (long[]) container;
+                for (int w = 0; w < words.length; w++) {
+                    long bits = words[w];
+                    while (bits != 0) {
+                        action.accept(high | w << 6 | Long.numberOfTrailingZeros(bits));
+                        bits &= bits - 1;
+                    }
+                }
+            } else {
+                for (char low : (char[]) container) {
+                    action.accept(high | low);
+                }
+            }
+        }
+    }
+
+    public int[] toArray() {
+        int[] ids = new int[size];
+        int[] count = new int[1];
+        forEach(id -> ids[count[0]++] = id);
+        return ids;
+    }
+
+    /**
+     * Collects ids in ascending order.
+     */
+    public static final class Builder {
+        private char[] keys = new char[4];
+        private Object[] containers = new Object[4];
+        private int groups;
+        private int size;
+        private int key = -1;
+        private char[] values = new char[16];
+        private int valueCount;
+        private int last = -1;
+
+        /**
+         * Adds {@code id}, which must be greater than all ids added before.
+         */
+        public Builder add(int id) {
+            if (id <= last) {
+                throw new IllegalArgumentException("Ids must be added in ascending order, but " + id + " follows " + last);
+            }
+            if (id >>> 16 != key) {
+                flush();
+                key = id >>> 16;
+            }
+            last = id;
+            if (valueCount == values.length) {
+                values = Arrays.copyOf(values, valueCount * 2);
+            }
+            values[valueCount++] = (char) id;
+            return this;
+        }
+
+        private void addGroup(char groupKey, Object container, int count) {
+            flush();
+            if (groups == keys.length) {
+                keys = Arrays.copyOf(keys, groups * 2);
+                containers = Arrays.copyOf(containers, groups * 2);
+            }
+            keys[groups] = groupKey;
+            containers[groups++] = container;
+            size += count;
+            last = groupKey << 16 | 0xffff;
+        }
+
+        private void flush() {
+            if (valueCount == 0) {
+                return;
+            }
+            int count = valueCount;
+            valueCount = 0;
+            Object container;
+            if (count <= MAX_ARRAY_SIZE) {
+                container = Arrays.copyOf(values, count);
+            } else {
+                long[] words = new long[GROUP_WORDS];
+                for (int i = 0; i < count; i++) {
+                    words[values[i] >>> 6] |= 1L << values[i];
+                }
+                container = words;
+            }
+            addGroup((char) key, container, count);
+        }
+
+        public FileBitmap build() {
+            flush();
+            return groups == 0 ? EMPTY : new FileBitmap(Arrays.copyOf(keys, groups), Arrays.copyOf(containers, groups), size);
+        }
+    }
+}
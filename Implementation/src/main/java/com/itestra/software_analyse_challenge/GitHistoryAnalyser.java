@@ -0,0 +1,287 @@
+package com.itestra.software_analyse_challenge;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Analyses the commits of a revision range straight from the object database of a local git repository,
+ * for {@code --git}. Nothing is checked out; all objects are read through one {@link GitObjectReader}.
+ * <p>
+ * The tree of each commit is compared with the tree of the previous one, skipping every subtree whose id
+ * did not change, so a commit costs about as much as the directories it touched. Analyses are remembered
+ * per blob id: a file is only analysed the first time its content shows up anywhere in the range, which
+ * also covers reverts, renames and copies. The listener receives the rows that changed with each commit,
+ * like the updates of {@code --watch}.
+ */
+public class GitHistoryAnalyser implements Closeable {
+
+    public interface Listener {
+        void update(String commit, AnalysisResultStore results, List<String> changed, List<String> removed) throws IOException;
+    }
+
+    private static final byte[] TREE_HEADER = "tree ".getBytes(StandardCharsets.US_ASCII);
+
+    private final Path directory;
+    private final String prefix;
+    private final JavaFileWalker walker;
+    private final ProjectRegistry projects;
+    private final ProjectRegistry onDemandRegistry;
+    private final Charset encoding;
+    private final int threads;
+    private final GitObjectReader objects;
+    private final Map<String, List<TreeEntry>> trees = new HashMap<>();
+    private final Map<String, FileAnalysis> blobAnalyses = new ConcurrentHashMap<>();
+    private final Map<String, String> blobs = new HashMap<>();
+    private final Map<String, FileAnalysis> analyses = new HashMap<>();
+    private String previousTree;
+    private ImportGraph graph;
+    private AnalysisResultStore results;
+
+    /**
+     * Analyses the part of the repository below the input directory, which must be inside a work tree.
+     */
+    public GitHistoryAnalyser(Input input) throws IOException {
+        this.directory = input.getInputDirectory().toPath();
+        // e.g. "src/main/java/" relative to the top of the work tree, empty at the top
+        List<String> prefixLines = GitObjectReader.run(directory, "rev-parse", "--show-prefix");
+        this.prefix = prefixLines.isEmpty() ? "" : prefixLines.get(0);
+        this.walker = new JavaFileWalker(input.getExcludes(), false);
+        this.projects = input.getProjects();
+        this.onDemandRegistry = input.isResolveImports() ? input.getProjects() : null;
+        this.encoding = input.getEncoding();
+        this.threads = input.getThreads();
+        this.objects = new GitObjectReader(directory);
+    }
+
+    /**
+     * The commits of {@code range} from oldest to newest: for {@code a..b} the base {@code a} followed by the
+     * commits {@code git rev-list} lists, so that the first result is complete and every later one a change
+     * against its predecessor; a single revision is just that commit.
+     */
+    public List<String> commits(String range) throws IOException {
+        int dots = range.indexOf("..");
+        if (dots == -1) {
+            return GitObjectReader.run(directory, "rev-parse", "--verify", range + "^{commit}");
+        }
+        List<String> commits = new ArrayList<>();
+        if (dots > 0 && !range.startsWith(".", dots + 2)) {
+            commits.addAll(GitObjectReader.run(directory, "rev-parse", "--verify", range.substring(0, dots) + "^{commit}"));
+        }
+        commits.addAll(GitObjectReader.run(directory, "rev-list", "--reverse", range));
+        return commits;
+    }
+
+    public void run(String range, Listener listener) throws IOException {
+        try (AnalysisExecutor executor = new AnalysisExecutor(threads)) {
+            for (String commit : commits(range)) {
+                List<String> changed = new ArrayList<>();
+                List<String> removed = new ArrayList<>();
+                analyse(commit, executor, changed, removed);
+                listener.update(commit, results, changed, removed);
+            }
+        }
+    }
+
+    /**
+     * The number of distinct file contents analysed so far.
+     */
+    public int getBlobCount() {
+        return blobAnalyses.size();
+    }
+
+    private void analyse(String commit, AnalysisExecutor executor, List<String> changed, List<String> removed) throws IOException {
+        String tree = subtree(rootTree(commit));
+        List<String> changedFiles = new ArrayList<>();
+        diffTree("", previousTree, tree, changedFiles);
+        previousTree = tree;
+
+        Set<String> submitted = new HashSet<>();
+        for (String fileName : changedFiles) {
+            String blob = blobs.get(fileName);
+            if (blob != null && !blobAnalyses.containsKey(blob) && submitted.add(blob)) {
+                byte[] content = objects.read(blob, "blob");
+                executor.submit(() -> blobAnalyses.put(blob, analyse(content)));
+            }
+        }
+        executor.awaitCompletion();
+        List<String> analysed = new ArrayList<>();
+        for (String fileName : changedFiles) {
+            String blob = blobs.get(fileName);
+            if (blob == null) {
+                analyses.remove(fileName);
+            } else {
+                analyses.put(fileName, blobAnalyses.get(blob));
+                analysed.add(fileName);
+            }
+        }
+
+        AnalysisResultStore previous = results;
+        if (graph == null) {
+            graph = ImportGraph.build(analyses, onDemandRegistry);
+            results = AnalysisResultStore.build(analyses, graph, projects);
+            changed.addAll(graph.getFileNames());
+            return;
+        }
+        List<String> previousNames = graph.getFileNames();
+        graph = graph.update(analyses, changedFiles);
+        results = graph.getFileNames() == previousNames
+                ? previous.update(analyses, graph, analysed)
+                : AnalysisResultStore.build(analyses, graph, projects);
+        results.diff(previous, changed, removed);
+    }
+
+    private FileAnalysis analyse(byte[] content) {
+        try {
+            return FileAnalyser.analyse(new ByteArrayInputStream(content), projects, encoding);
+        } catch (IOException e) {
+            // reading from memory does not fail
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String rootTree(String commit) throws IOException {
+        byte[] content = objects.read(commit, "commit");
+        if (!Arrays.equals(content, 0, TREE_HEADER.length, TREE_HEADER, 0, TREE_HEADER.length)) {
+            throw new IOException("Commit " + commit + " has no tree");
+        }
+        return new String(content, TREE_HEADER.length, 40, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * The tree at {@link #prefix} below {@code root}, or {@code null} if the directory does not exist in it.
+     */
+    private String subtree(String root) throws IOException {
+        String tree = root;
+        for (String segment : prefix.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            String next = null;
+            for (TreeEntry entry : entries(tree)) {
+                if (entry.type == TreeEntry.TREE && entry.name.equals(segment)) {
+                    next = entry.id;
+                    break;
+                }
+            }
+            if (next == null) {
+                return null;
+            }
+            tree = next;
+        }
+        return tree;
+    }
+
+    /**
+     * Updates {@link #blobs} for the directory {@code path} changing from {@code oldTree} to {@code newTree},
+     * either of which may be {@code null}, and adds every added, changed or deleted file to {@code changed}.
+     */
+    private void diffTree(String path, String oldTree, String newTree, List<String> changed) throws IOException {
+        if (Objects.equals(oldTree, newTree)) {
+            return;
+        }
+        Map<String, TreeEntry> oldEntries = new LinkedHashMap<>();
+        if (oldTree != null) {
+            for (TreeEntry entry : entries(oldTree)) {
+                oldEntries.put(entry.name, entry);
+            }
+        }
+        if (newTree != null) {
+            for (TreeEntry entry : entries(newTree)) {
+                diffEntry(path, oldEntries.remove(entry.name), entry, changed);
+            }
+        }
+        for (TreeEntry entry : oldEntries.values()) {
+            diffEntry(path, entry, null, changed);
+        }
+    }
+
+    private void diffEntry(String path, TreeEntry oldEntry, TreeEntry newEntry, List<String> changed) throws IOException {
+        String name = path + (newEntry != null ? newEntry.name : oldEntry.name);
+        boolean directory = (newEntry != null ? newEntry : oldEntry).type == TreeEntry.TREE;
+        if (walker.isExcluded(name, directory)) {
+            return;
+        }
+        String oldTree = oldEntry != null && oldEntry.type == TreeEntry.TREE ? oldEntry.id : null;
+        String newTree = newEntry != null && newEntry.type == TreeEntry.TREE ? newEntry.id : null;
+        if (oldTree != null || newTree != null) {
+            diffTree(name + "/", oldTree, newTree, changed);
+        }
+        boolean wasJavaFile = isJavaFile(oldEntry);
+        boolean isJavaFile = isJavaFile(newEntry);
+        if (isJavaFile && (!wasJavaFile || !oldEntry.id.equals(newEntry.id))) {
+            blobs.put(name, newEntry.id);
+            changed.add(name);
+        } else if (wasJavaFile && !isJavaFile) {
+            blobs.remove(name);
+            changed.add(name);
+        }
+    }
+
+    private static boolean isJavaFile(TreeEntry entry) {
+        return entry != null && entry.type == TreeEntry.BLOB && entry.name.endsWith(".java");
+    }
+
+    private List<TreeEntry> entries(String tree) throws IOException {
+        List<TreeEntry> entries = trees.get(tree);
+        if (entries == null) {
+            entries = TreeEntry.parse(objects.read(tree, "tree"));
+            trees.put(tree, entries);
+        }
+        return entries;
+    }
+
+    @Override
+    public void close() throws IOException {
+        objects.close();
+    }
+
+    private static class TreeEntry {
+        static final int BLOB = 0;
+        static final int TREE = 1;
+        // symbolic links and submodules
+        static final int OTHER = 2;
+
+        private final String name;
+        private final String id;
+        private final int type;
+
+        TreeEntry(String name, String id, int type) {
+            this.name = name;
+            this.id = id;
+            this.type = type;
+        }
+
+        /**
+         * Parses the binary tree format: {@code <octal mode> <name>\0<20 byte id>} per entry.
+         */
+        static List<TreeEntry> parse(byte[] content) {
+            List<TreeEntry> entries = new ArrayList<>();
+            HexFormat hex = HexFormat.of();
+            int i = 0;
+            while (i < content.length) {
+                int space = i;
+                while (content[space] != ' ') {
+                    space++;
+                }
+                int nul = space + 1;
+                while (content[nul] != 0) {
+                    nul++;
+                }
+                String mode = new String(content, i, space - i, StandardCharsets.US_ASCII);
+                String name = new String(content, space + 1, nul - space - 1, StandardCharsets.UTF_8);
+                String id = hex.formatHex(content, nul + 1, nul + 21);
+                int type = mode.equals("40000") ? TREE : mode.startsWith("10") ? BLOB : OTHER;
+                entries.add(new TreeEntry(name, id, type));
+                i = nul + 21;
+            }
+            return entries;
+        }
+    }
+}
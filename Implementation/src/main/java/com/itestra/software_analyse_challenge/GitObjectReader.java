@@ -0,0 +1,99 @@
+package com.itestra.software_analyse_challenge;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads objects of a local git repository through one long-running {@code git cat-file --batch}
+ * process, so reading many objects does not start a process per object.
+ */
+public class GitObjectReader implements Closeable {
+
+    private final Process process;
+    private final OutputStream requests;
+    private final InputStream responses;
+
+    public GitObjectReader(Path repository) throws IOException {
+        process = new ProcessBuilder("git", "-C", repository.toString(), "cat-file", "--batch")
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        requests = new BufferedOutputStream(process.getOutputStream());
+        responses = new BufferedInputStream(process.getInputStream(), 1 << 16);
+    }
+
+    /**
+     * Returns the content of the object named by {@code name}, a SHA or any revision expression git accepts.
+     *
+     * @throws IOException if the object does not exist or is not of {@code expectedType}
+     */
+    public byte[] read(String name, String expectedType) throws IOException {
+        requests.write((name + "\n").getBytes(StandardCharsets.UTF_8));
+        requests.flush();
+        // "<sha> <type> <size>" or "<name> missing"
+        String[] header = readLine().split(" ");
+        if (header.length != 3) {
+            throw new IOException("Unknown git object " + name);
+        }
+        byte[] content = responses.readNBytes(Integer.parseInt(header[2]));
+        if (responses.read() != '\n') {
+            throw new IOException("Unexpected end of git cat-file output");
+        }
+        if (!header[1].equals(expectedType)) {
+            throw new IOException(name + " is a " + header[1] + ", not a " + expectedType);
+        }
+        return content;
+    }
+
+    private String readLine() throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(64);
+        int b;
+        while ((b = responses.read()) != '\n') {
+            if (b == -1) {
+                throw new IOException("git cat-file terminated");
+            }
+            line.write(b);
+        }
+        return line.toString(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        requests.close();
+        try {
+            process.waitFor();
+        } catch (InterruptedException e) {
+            process.destroy();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs a short git command in {@code directory} and returns its output lines.
+     *
+     * @throws IOException if git fails
+     */
+    static List<String> run(Path directory, String... arguments) throws IOException {
+        List<String> command = new ArrayList<>(List.of("git", "-C", directory.toString()));
+        command.addAll(List.of(arguments));
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        try {
+            if (process.waitFor() != 0) {
+                throw new IOException(String.join(" ", command) + " failed");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while running git", e);
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,415 @@
+package com.itestra.software_analyse_challenge;
+
+import java.util.*;
+
+/**
+ * Import graph over all analysed files, used to compute transitive project dependencies.
+ * <p>
+ * Every file gets an int id in file name order. A file declares the type named like the file in its
+ * package; imports of nested types resolve to the file declaring the outermost type, see {@link SymbolIndex}.
+ * Wildcard and static imports and fully qualified type names in code are ignored unless the graph is built
+ * with a registry to resolve them: then a wildcard import depends on every file of the package it names, a
+ * static import or qualified name on the file declaring its type, and all of them on the project of the name. Edges are kept in
+ * compressed sparse row form ({@code edgeStart}, {@code edgeTargets}) and project sets as bit sets in a
+ * {@code long[]} with {@code words} entries per file.
+ * <p>
+ * The strongly connected components are found with an iterative version of Tarjan's algorithm. It
+ * completes a component only after all components reachable from it, so each component's project set
+ * is the union of its members' direct projects and its successors' final sets. Building and closing
+ * the graph is linear in the number of files and imports.
+ */
+public class ImportGraph {
+
+    private final List<String> fileNames;
+    private final Map<String, Integer> fileIds;
+    private final SymbolIndex symbols;
+    private final ProjectRegistry onDemandRegistry;
+    private final List<String> projectNames;
+    private final Map<String, Integer> projectIds;
+    private final int words;
+    private final int[] edgeStart;
+    private final int[] edgeTargets;
+    private final long[] directProjects;
+    private final long[] reachableProjects;
+    private volatile ReverseDependencyIndex reverseIndex;
+
+    private ImportGraph(List<String> fileNames, Map<String, Integer> fileIds, SymbolIndex symbols,
+                        ProjectRegistry onDemandRegistry, List<String> projectNames, Map<String, Integer> projectIds, int[] edgeStart,
+                        int[] edgeTargets, long[] directProjects) {
+        this.fileNames = fileNames;
+        this.fileIds = fileIds;
+        this.symbols = symbols;
+        this.onDemandRegistry = onDemandRegistry;
+        this.projectNames = projectNames;
+        this.projectIds = projectIds;
+        this.words = Math.max(1, (projectNames.size() + 63) / 64);
+        this.edgeStart = edgeStart;
+        this.edgeTargets = edgeTargets;
+        this.directProjects = directProjects;
+        this.reachableProjects = closeOverComponents(fileNames.size(), words, edgeStart, edgeTargets, directProjects);
+    }
+
+    public static ImportGraph build(Map<String, FileAnalysis> analyses) {
+        return build(analyses, null);
+    }
+
+    /**
+     * Builds the graph, resolving wildcard and static imports and qualified type names as well if
+     * {@code onDemandRegistry} is not null; their projects are found with it.
+     */
+    public static ImportGraph build(Map<String, FileAnalysis> analyses, ProjectRegistry onDemandRegistry) {
+        List<String> names = new ArrayList<>(analyses.keySet());
+        Collections.sort(names);
+        List<String> fileNames = Collections.unmodifiableList(names);
+        int fileCount = fileNames.size();
+
+        Map<String, Integer> fileIds = new HashMap<>(fileCount * 2);
+        String[] packageNames = new String[fileCount];
+        SortedSet<String> projects = new TreeSet<>();
+        for (int id = 0; id < fileCount; id++) {
+            String fileName = fileNames.get(id);
+            FileAnalysis analysis = analyses.get(fileName);
+            fileIds.put(fileName, id);
+            packageNames[id] = analysis.getPackageName();
+            projects.addAll(analysis.getDependencies());
+            if (onDemandRegistry != null) {
+                addOnDemandProjects(analysis, onDemandRegistry, projects);
+            }
+        }
+        SymbolIndex symbols = SymbolIndex.build(fileNames, packageNames);
+        List<String> projectNames = Collections.unmodifiableList(new ArrayList<>(projects));
+        Map<String, Integer> projectIds = new HashMap<>();
+        for (int i = 0; i < projectNames.size(); i++) {
+            projectIds.put(projectNames.get(i), i);
+        }
+        int words = Math.max(1, (projectNames.size() + 63) / 64);
+
+        int[] edgeStart = new int[fileCount + 1];
+        Edges edges = new Edges();
+        long[] directProjects = new long[fileCount * words];
+        for (int id = 0; id < fileCount; id++) {
+            FileAnalysis analysis = analyses.get(fileNames.get(id));
+            edgeStart[id] = edges.count;
+            addEdges(analysis, id, symbols, onDemandRegistry, edges);
+            addProjects(analysis, id, onDemandRegistry, projectIds, words, directProjects);
+        }
+        edgeStart[fileCount] = edges.count;
+        return new ImportGraph(fileNames, fileIds, symbols, onDemandRegistry, projectNames, projectIds, edgeStart,
+                edges.toArray(), directProjects);
+    }
+
+    private static void addOnDemandProjects(FileAnalysis analysis, ProjectRegistry registry, Collection<String> projects) {
+        for (String wildcard : analysis.getWildcardImports()) {
+            String project = registry.resolve(wildcard);
+            if (project != null) {
+                projects.add(project);
+            }
+        }
+        for (String owner : analysis.getStaticImports()) {
+            String project = registry.resolve(owner);
+            if (project != null) {
+                projects.add(project);
+            }
+        }
+        for (String typeName : analysis.getQualifiedTypes()) {
+            String project = registry.resolve(typeName);
+            if (project != null) {
+                projects.add(project);
+            }
+        }
+    }
+
+    /**
+     * Returns the graph after the files in {@code changed} were analysed again. As long as no file was added
+     * or removed, no changed file moved to another package and no new project appeared, the declared types
+     * stay the same, so only the imports of the changed files are resolved again and the other edges are
+     * copied. Otherwise the graph is built from scratch.
+     */
+    public ImportGraph update(Map<String, FileAnalysis> analyses, Collection<String> changed) {
+        if (analyses.size() != fileNames.size()) {
+            return build(analyses, onDemandRegistry);
+        }
+        BitSet changedIds = new BitSet(fileNames.size());
+        for (String fileName : changed) {
+            Integer id = fileIds.get(fileName);
+            FileAnalysis analysis = analyses.get(fileName);
+            if (id == null || analysis == null || !analysis.getPackageName().equals(symbols.getPackageName(id))
+                    || !projectIds.keySet().containsAll(analysis.getDependencies())) {
+                return build(analyses, onDemandRegistry);
+            }
+            if (onDemandRegistry != null) {
+                Set<String> projects = new HashSet<>();
+                addOnDemandProjects(analysis, onDemandRegistry, projects);
+                if (!projectIds.keySet().containsAll(projects)) {
+                    return build(analyses, onDemandRegistry);
+                }
+            }
+            changedIds.set(id);
+        }
+
+        int fileCount = fileNames.size();
+        int[] newEdgeStart = new int[fileCount + 1];
+        Edges edges = new Edges();
+        long[] newDirectProjects = directProjects.clone();
+        for (int id = 0; id < fileCount; id++) {
+            newEdgeStart[id] = edges.count;
+            if (changedIds.get(id)) {
+                FileAnalysis analysis = analyses.get(fileNames.get(id));
+                addEdges(analysis, id, symbols, onDemandRegistry, edges);
+                Arrays.fill(newDirectProjects, id * words, (id + 1) * words, 0L);
+                addProjects(analysis, id, onDemandRegistry, projectIds, words, newDirectProjects);
+            } else {
+                edges.addAll(edgeTargets, edgeStart[id], edgeStart[id + 1]);
+            }
+        }
+        newEdgeStart[fileCount] = edges.count;
+        return new ImportGraph(fileNames, fileIds, symbols, onDemandRegistry, projectNames, projectIds, newEdgeStart,
+                edges.toArray(), newDirectProjects);
+    }
+
+    private static void addEdges(FileAnalysis analysis, int id, SymbolIndex symbols, ProjectRegistry onDemandRegistry, Edges edges) {
+        for (String imported : analysis.getImports()) {
+            addEdge(id, symbols.resolveType(imported), edges);
+        }
+        if (onDemandRegistry == null) {
+            return;
+        }
+        for (String wildcard : analysis.getWildcardImports()) {
+            int pkg = symbols.resolvePackage(wildcard);
+            if (pkg >= 0) {
+                symbols.forEachFile(pkg, target -> addEdge(id, target, edges));
+            } else {
+                // import a.b.C.*; imports the nested types of C
+                addEdge(id, symbols.resolveType(wildcard), edges);
+            }
+        }
+        for (String owner : analysis.getStaticImports()) {
+            addEdge(id, symbols.resolveType(owner), edges);
+        }
+        for (String typeName : analysis.getQualifiedTypes()) {
+            addEdge(id, symbols.resolveType(typeName), edges);
+        }
+    }
+
+    private static void addEdge(int id, int target, Edges edges) {
+        if (target >= 0 && target != id) {
+            edges.add(target);
+        }
+    }
+
+    private static void addProjects(FileAnalysis analysis, int id, ProjectRegistry onDemandRegistry, Map<String, Integer> projectIds,
+                                    int words, long[] directProjects) {
+        Collection<String> projects = analysis.getDependencies();
+        if (onDemandRegistry != null) {
+            projects = new ArrayList<>(projects);
+            addOnDemandProjects(analysis, onDemandRegistry, projects);
+        }
+        for (String project : projects) {
+            int projectId = projectIds.get(project);
+            directProjects[id * words + (projectId >>> 6)] |= 1L << projectId;
+        }
+    }
+
+    public int size() {
+        return fileNames.size();
+    }
+
+    /**
+     * All files of the graph, sorted by name.
+     */
+    public List<String> getFileNames() {
+        return fileNames;
+    }
+
+    /**
+     * All projects any file depends on, sorted by name; the index of a project is its bit in
+     * {@link #getDependencyBits()}.
+     */
+    public List<String> getProjectNames() {
+        return projectNames;
+    }
+
+    /**
+     * Transitive project bit sets of all files in {@link #getFileNames()} order, {@link #getWords()} longs per
+     * file. The array is shared, not copied.
+     */
+    long[] getDependencyBits() {
+        return reachableProjects;
+    }
+
+    int getWords() {
+        return words;
+    }
+
+    int[] getEdgeStart() {
+        return edgeStart;
+    }
+
+    int[] getEdgeTargets() {
+        return edgeTargets;
+    }
+
+    /**
+     * The reverse edges of this graph, built on first use.
+     */
+    public ReverseDependencyIndex getReverseIndex() {
+        ReverseDependencyIndex index = reverseIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = reverseIndex;
+                if (index == null) {
+                    index = ReverseDependencyIndex.build(this);
+                    reverseIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Projects the file depends on directly or through any chain of imports, sorted by name.
+     */
+    public List<String> getDependencies(String fileName) {
+        Integer id = fileIds.get(fileName);
+        if (id == null) {
+            throw new IllegalArgumentException("Unknown file " + fileName);
+        }
+        List<String> dependencies = new ArrayList<>();
+        for (int w = 0; w < words; w++) {
+            long bits = reachableProjects[id * words + w];
+            while (bits != 0) {
+                dependencies.add(projectNames.get(w * 64 + Long.numberOfTrailingZeros(bits)));
+                bits &= bits - 1;
+            }
+        }
+        return dependencies;
+    }
+
+    static String declaredType(String fileName, String packageName) {
+        int start = fileName.lastIndexOf('/') + 1;
+        int end = fileName.endsWith(".java") ? fileName.length() - ".java".length() : fileName.length();
+        String simpleName = fileName.substring(start, end);
+        return packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+    }
+
+    /**
+     * The transitive project sets of the {@code n} files of a graph in compressed sparse row form, given
+     * their direct project sets.
+     */
+    static long[] closeOverComponents(int n, int words, int[] edgeStart, int[] edgeTargets, long[] directProjects) {
+        long[] componentProjects = new long[n * words];
+        int[] componentOf = new int[n];
+        int[] index = new int[n];
+        int[] low = new int[n];
+        boolean[] onStack = new boolean[n];
+        int[] stack = new int[n];
+        int[] callStack = new int[n];
+        int[] nextEdge = new int[n];
+        Arrays.fill(index, -1);
+        int stackSize = 0;
+        int nextIndex = 0;
+        int componentCount = 0;
+        long[] projects = new long[words];
+
+        for (int root = 0; root < n; root++) {
+            if (index[root] != -1) {
+                continue;
+            }
+            int depth = 0;
+            callStack[depth++] = root;
+            index[root] = low[root] = nextIndex++;
+            nextEdge[root] = edgeStart[root];
+            stack[stackSize++] = root;
+            onStack[root] = true;
+
+            while (depth > 0) {
+                int v = callStack[depth - 1];
+                if (nextEdge[v] < edgeStart[v + 1]) {
+                    int w = edgeTargets[nextEdge[v]++];
+                    if (index[w] == -1) {
+                        index[w] = low[w] = nextIndex++;
+                        nextEdge[w] = edgeStart[w];
+                        stack[stackSize++] = w;
+                        onStack[w] = true;
+                        callStack[depth++] = w;
+                    } else if (onStack[w]) {
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                    continue;
+                }
+
+                depth--;
+                if (depth > 0) {
+                    int parent = callStack[depth - 1];
+                    low[parent] = Math.min(low[parent], low[v]);
+                }
+                if (low[v] != index[v]) {
+                    continue;
+                }
+
+                // v is the root of a component: pop it and merge the project sets
+                int component = componentCount++;
+                Arrays.fill(projects, 0L);
+                int top = stackSize;
+                int member;
+                do {
+                    member = stack[--stackSize];
+                    onStack[member] = false;
+                    componentOf[member] = component;
+                } while (member != v);
+                for (int i = stackSize; i < top; i++) {
+                    int u = stack[i];
+                    or(projects, directProjects, u * words, words);
+                    for (int e = edgeStart[u]; e < edgeStart[u + 1]; e++) {
+                        int successor = componentOf[edgeTargets[e]];
+                        if (successor != component) {
+                            or(projects, componentProjects, successor * words, words);
+                        }
+                    }
+                }
+                System.arraycopy(projects, 0, componentProjects, component * words, words);
+            }
+        }
+
+        long[] result = new long[n * words];
+        for (int v = 0; v < n; v++) {
+            System.arraycopy(componentProjects, componentOf[v] * words, result, v * words, words);
+        }
+        return result;
+    }
+
+    private static void or(long[] target, long[] source, int sourceOffset, int words) {
+        for (int w = 0; w < words; w++) {
+            target[w] |= source[sourceOffset + w];
+        }
+    }
+
+    static final class Edges {
+        private int[] targets = new int[16];
+        private int count;
+
+        void add(int target) {
+            if (count == targets.length) {
+                targets = Arrays.copyOf(targets, count * 2);
+            }
+            targets[count++] = target;
+        }
+
+        void addAll(int[] source, int from, int to) {
+            int length = to - from;
+            if (count + length > targets.length) {
+                targets = Arrays.copyOf(targets, Math.max(targets.length * 2, count + length));
+            }
+            System.arraycopy(source, from, targets, count, length);
+            count += length;
+        }
+
+        int count() {
+            return count;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(targets, count);
+        }
+    }
+}
@@ -3,21 +3,331 @@ package com.itestra.software_analyse_challenge;
 import org.apache.commons.cli.CommandLine;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 public class Input {
 
     private final File inputDirectory;
+    private final int threads;
+    private final List<String> excludes;
+    private final Path cacheFile;
+    private final ProjectRegistry projects;
+    private final OutputFormat format;
+    private final Charset encoding;
+    private final boolean dedup;
+    private final boolean resolveImports;
+    private final String dependents;
+    private final Path snapshotFile;
+    private final Path diffBase;
+    private final boolean watch;
+    private final int servePort;
+    private final int connectPort;
+    private final String gitRange;
+    private final Path metricsFile;
+    private final long spillBudget;
+    private final int shardCount;
+    private final int shardIndex;
+    private final Path shardFile;
 
     public Input(CommandLine commandLine) {
         String optionValue = commandLine.getOptionValue(SourceCodeAnalyser.INPUT_DIR, SourceCodeAnalyser.DEFAULT_INPUT_DIR);
         this.inputDirectory = new File(optionValue);
-        if (!this.inputDirectory.isDirectory()) {
-            throw new IllegalArgumentException(optionValue + " is not a directory");
+        if (!this.inputDirectory.isDirectory() && !(this.inputDirectory.isFile() && JavaFileWalker.isArchive(this.inputDirectory.toPath()))) {
+            throw new IllegalArgumentException(optionValue + " is not a directory or a zip or jar archive");
         }
+        String threadsValue = commandLine.getOptionValue(SourceCodeAnalyser.THREADS, "1");
+        try {
+            this.threads = Integer.parseInt(threadsValue);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(threadsValue + " is not a valid number of threads", e);
+        }
+        if (this.threads < 1) {
+            throw new IllegalArgumentException("Number of threads must be at least 1 but was " + threadsValue);
+        }
+        String[] excludeValues = commandLine.getOptionValues(SourceCodeAnalyser.EXCLUDE);
+        this.excludes = excludeValues == null ? Collections.emptyList() : Arrays.asList(excludeValues);
+        String cacheValue = commandLine.getOptionValue(SourceCodeAnalyser.CACHE);
+        this.cacheFile = cacheValue == null ? null : Path.of(cacheValue);
+        this.projects = parseProjects(commandLine.getOptionValue(SourceCodeAnalyser.PROJECTS_FILE),
+                commandLine.getOptionValues(SourceCodeAnalyser.PROJECT));
+        this.format = OutputFormat.forName(commandLine.getOptionValue(SourceCodeAnalyser.FORMAT, OutputFormat.TABLE.getName()));
+        String encodingValue = commandLine.getOptionValue(SourceCodeAnalyser.ENCODING);
+        try {
+            this.encoding = encodingValue == null ? SourceDecoder.DEFAULT_CHARSET : Charset.forName(encodingValue);
+        } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+            throw new IllegalArgumentException(encodingValue + " is not a supported charset", e);
+        }
+        this.watch = commandLine.hasOption(SourceCodeAnalyser.WATCH);
+        this.servePort = parsePort(commandLine.getOptionValue(SourceCodeAnalyser.SERVE));
+        this.connectPort = parsePort(commandLine.getOptionValue(SourceCodeAnalyser.CONNECT));
+        this.gitRange = commandLine.getOptionValue(SourceCodeAnalyser.GIT);
+        if (this.gitRange != null && !this.inputDirectory.isDirectory()) {
+            throw new IllegalArgumentException("--git needs a directory inside a git work tree, not " + optionValue);
+        }
+        this.dedup = commandLine.hasOption(SourceCodeAnalyser.DEDUP);
+        if (this.dedup && (connectPort >= 0 || gitRange != null)) {
+            throw new IllegalArgumentException("--dedup cannot be combined with --connect or --git, which analyses every distinct content once anyway");
+        }
+        String metricsValue = commandLine.getOptionValue(SourceCodeAnalyser.METRICS);
+        this.metricsFile = metricsValue == null ? null : Path.of(metricsValue);
+        if (this.metricsFile != null && (watch || servePort >= 0 || connectPort >= 0 || gitRange != null)) {
+            throw new IllegalArgumentException("--metrics measures a single run and cannot be combined with --watch, --serve, --connect or --git");
+        }
+        this.spillBudget = parseSize(commandLine.getOptionValue(SourceCodeAnalyser.SPILL));
+        if (this.spillBudget > 0 && (watch || servePort >= 0 || connectPort >= 0 || gitRange != null)) {
+            throw new IllegalArgumentException("--spill only applies to a single run and cannot be combined with --watch, --serve, --connect or --git");
+        }
+        String[] shardValues = commandLine.getOptionValues(SourceCodeAnalyser.SHARD);
+        if (shardValues != null) {
+            String[] shard = shardValues[0].split("/");
+            try {
+                this.shardIndex = Integer.parseInt(shard[0]);
+                this.shardCount = Integer.parseInt(shard[1]);
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException(shardValues[0] + " is not of the form <k>/<n>", e);
+            }
+            if (shardIndex < 0 || shardIndex >= shardCount) {
+                throw new IllegalArgumentException("Shard " + shardValues[0] + " does not exist");
+            }
+            this.shardFile = Path.of(shardValues[1]);
+        } else {
+            String shardsValue = commandLine.getOptionValue(SourceCodeAnalyser.SHARDS);
+            try {
+                this.shardCount = shardsValue == null ? 0 : Integer.parseInt(shardsValue);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(shardsValue + " is not a valid number of shards", e);
+            }
+            if (shardsValue != null && shardCount < 1) {
+                throw new IllegalArgumentException("Number of shards must be at least 1 but was " + shardsValue);
+            }
+            this.shardIndex = -1;
+            this.shardFile = null;
+        }
+        if (this.shardCount > 0 && (watch || servePort >= 0 || connectPort >= 0 || gitRange != null)) {
+            throw new IllegalArgumentException("--shards only applies to a single run and cannot be combined with --watch, --serve, --connect or --git");
+        }
+        this.resolveImports = commandLine.hasOption(SourceCodeAnalyser.RESOLVE_IMPORTS);
+        if (this.resolveImports && (spillBudget > 0 || shardCount > 0 || connectPort >= 0)) {
+            throw new IllegalArgumentException("--resolve-imports needs all files in memory and cannot be combined with --spill, --shards or --connect");
+        }
+        this.dependents = commandLine.getOptionValue(SourceCodeAnalyser.DEPENDENTS);
+        if (this.dependents != null && (watch || servePort >= 0 || connectPort >= 0 || gitRange != null || spillBudget > 0 || shardCount > 0)) {
+            throw new IllegalArgumentException("--dependents only applies to a single run in memory and cannot be combined with --watch, --serve, --connect, --git, --spill or --shards");
+        }
+        String snapshotValue = commandLine.getOptionValue(SourceCodeAnalyser.SNAPSHOT);
+        this.snapshotFile = snapshotValue == null ? null : Path.of(snapshotValue);
+        String diffValue = commandLine.getOptionValue(SourceCodeAnalyser.DIFF);
+        this.diffBase = diffValue == null ? null : Path.of(diffValue);
+        if ((snapshotFile != null || diffBase != null)
+                && (watch || servePort >= 0 || connectPort >= 0 || gitRange != null || spillBudget > 0 || shardCount > 0 || dependents != null)) {
+            throw new IllegalArgumentException("--snapshot and --diff only apply to a single run in memory and cannot be combined with --watch, --serve, --connect, --git, --spill, --shards or --dependents");
+        }
+    }
+
+    private static int parsePort(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            int port = Integer.parseInt(value);
+            if (port >= 0 && port <= 65535) {
+                return port;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException(value + " is not a valid port");
+    }
+
+    /**
+     * Parses a number of bytes with an optional {@code k}, {@code m} or {@code g} suffix, -1 if absent.
+     */
+    private static long parseSize(String value) {
+        if (value == null) {
+            return -1;
+        }
+        String digits = value.trim().toLowerCase(Locale.ROOT);
+        int shift = 0;
+        if (digits.endsWith("k") || digits.endsWith("m") || digits.endsWith("g")) {
+            shift = "kmg".indexOf(digits.charAt(digits.length() - 1)) * 10 + 10;
+            digits = digits.substring(0, digits.length() - 1);
+        }
+        try {
+            long size = Long.parseLong(digits);
+            if (size > 0 && size <= Long.MAX_VALUE >> shift) {
+                return size << shift;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException(value + " is not a valid size, e.g. 512m");
+    }
+
+    private static ProjectRegistry parseProjects(String file, String[] mappings) {
+        if (file == null && mappings == null) {
+            return ProjectRegistry.DEFAULT;
+        }
+        Map<String, String> prefixes = new HashMap<>();
+        if (file != null) {
+            try {
+                prefixes.putAll(ProjectRegistry.load(Path.of(file)).getPrefixes());
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Could not read project file " + file, e);
+            }
+        }
+        if (mappings != null) {
+            for (String mapping : mappings) {
+                int separator = mapping.indexOf('=');
+                if (separator <= 0) {
+                    throw new IllegalArgumentException(mapping + " is not of the form <prefix>=<project>");
+                }
+                prefixes.put(mapping.substring(0, separator).trim(), mapping.substring(separator + 1).trim());
+            }
+        }
+        return new ProjectRegistry(prefixes);
     }
 
     @SuppressWarnings("unused")
     public File getInputDirectory() {
         return inputDirectory;
     }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public List<String> getExcludes() {
+        return excludes;
+    }
+
+    public Path getCacheFile() {
+        return cacheFile;
+    }
+
+    public ProjectRegistry getProjects() {
+        return projects;
+    }
+
+    public OutputFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * The charset of source files that do not start with a byte order mark.
+     */
+    public Charset getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * Whether byte-identical files are analysed once, see {@link ContentDeduplicator}.
+     */
+    public boolean isDedup() {
+        return dedup;
+    }
+
+    /**
+     * Whether wildcard and static imports count as dependencies, see {@link ImportGraph}.
+     */
+    public boolean isResolveImports() {
+        return resolveImports;
+    }
+
+    /**
+     * The file or project whose dependents are printed instead of the result, or null.
+     */
+    public String getDependents() {
+        return dependents;
+    }
+
+    /**
+     * The file to write the snapshot of the result to, or null.
+     */
+    public Path getSnapshotFile() {
+        return snapshotFile;
+    }
+
+    /**
+     * The snapshot to print the difference of the result to, or null.
+     */
+    public Path getDiffBase() {
+        return diffBase;
+    }
+
+    public boolean isWatch() {
+        return watch;
+    }
+
+    /**
+     * The port to serve queries on, or -1 if no server should be started.
+     */
+    public int getServePort() {
+        return servePort;
+    }
+
+    /**
+     * The port of a running server to query instead of analysing, or -1.
+     */
+    public int getConnectPort() {
+        return connectPort;
+    }
+
+    /**
+     * The revision range to analyse from the git repository, or {@code null} to analyse the files on disk.
+     */
+    public String getGitRange() {
+        return gitRange;
+    }
+
+    /**
+     * The file to write the {@link RunMetrics} report to, or {@code null}.
+     */
+    public Path getMetricsFile() {
+        return metricsFile;
+    }
+
+    /**
+     * The heap budget in bytes for buffered results with {@code --spill}, or -1 to keep all results in memory.
+     */
+    public long getSpillBudget() {
+        return spillBudget;
+    }
+
+    /**
+     * The number of worker processes of {@code --shards}, or of the shards of a worker; 0 without sharding.
+     */
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * The shard a worker analyses, or -1 if this is not a worker.
+     */
+    public int getShardIndex() {
+        return shardIndex;
+    }
+
+    /**
+     * The file a worker writes its partial result to, or {@code null} if this is not a worker.
+     */
+    public Path getShardFile() {
+        return shardFile;
+    }
+
+    /**
+     * Whether this process analyses {@code fileName}; always true unless this is a worker.
+     */
+    public boolean isInShard(String fileName) {
+        return shardIndex < 0 || ShardedAnalyser.isInShard(fileName, shardIndex, shardCount);
+    }
 }
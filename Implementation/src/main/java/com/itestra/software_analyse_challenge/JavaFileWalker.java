@@ -0,0 +1,211 @@
+package com.itestra.software_analyse_challenge;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Walks a source tree and hands every {@code .java} file to a consumer as soon as it is found.
+ * Symbolic links are followed; links pointing back into one of their parent directories are reported
+ * and skipped.
+ * <p>
+ * Exclude globs without a {@code /} are matched against the file name, all others against the path
+ * relative to the root. A trailing {@code /} restricts a glob to directories, so {@code target/} and
+ * {@code .git/} skip those directories at any depth.
+ * <p>
+ * Zip and jar archives, both as root and inside the tree or another archive, are opened with the zip
+ * {@link FileSystem} and walked like directories, so their entries are read without extracting them. The
+ * archives stay open until {@link #close()}, since the consumer may read the files later. Inside an archive
+ * the excludes are relative to the archive, and {@link #getFileName(Path, Path)} names entries like
+ * {@code libs/x-sources.jar!/com/x/A.java}.
+ */
+public class JavaFileWalker implements Closeable {
+
+    private final List<Exclude> excludes = new ArrayList<>();
+    private final boolean openArchives;
+    private final Map<FileSystem, String> archivePrefixes = new ConcurrentHashMap<>();
+
+    public JavaFileWalker(List<String> excludeGlobs) {
+        this(excludeGlobs, true);
+    }
+
+    public JavaFileWalker(List<String> excludeGlobs, boolean openArchives) {
+        for (String glob : excludeGlobs) {
+            excludes.add(new Exclude(glob));
+        }
+        this.openArchives = openArchives;
+    }
+
+    public static boolean isArchive(Path file) {
+        Path name = file.getFileName();
+        if (name == null) {
+            return false;
+        }
+        String fileName = name.toString().toLowerCase(Locale.ROOT);
+        return fileName.endsWith(".jar") || fileName.endsWith(".zip");
+    }
+
+    public void walk(Path root, Consumer<Path> javaFileConsumer) {
+        walk(root, dir -> { }, javaFileConsumer);
+    }
+
+    /**
+     * Like {@link #walk(Path, Consumer)}, additionally handing every directory that is not excluded, including
+     * {@code root}, to {@code directoryConsumer} before its content.
+     */
+    public void walk(Path root, Consumer<Path> directoryConsumer, Consumer<Path> javaFileConsumer) {
+        if (openArchives && isArchive(root) && Files.isRegularFile(root)) {
+            walkArchive(root, "", javaFileConsumer);
+            return;
+        }
+        walkTree(root, directoryConsumer, javaFileConsumer);
+    }
+
+    /**
+     * The name of {@code file} relative to {@code root} with {@code /} as separator; for entries of archives
+     * the archive's name followed by {@code !/} and the path inside the archive.
+     */
+    public String getFileName(Path root, Path file) {
+        String prefix = archivePrefixes.get(file.getFileSystem());
+        if (prefix == null) {
+            return root.relativize(file).toString().replace(root.getFileSystem().getSeparator(), "/");
+        }
+        Path archiveRoot = file.getFileSystem().getRootDirectories().iterator().next();
+        return prefix + archiveRoot.relativize(file).toString();
+    }
+
+    private void walkArchive(Path archive, String prefix, Consumer<Path> javaFileConsumer) {
+        FileSystem fileSystem;
+        try {
+            fileSystem = FileSystems.newFileSystem(archive);
+        } catch (IOException | ProviderNotFoundException e) {
+            System.err.println("Skipping unreadable archive " + archive + ": " + e);
+            return;
+        }
+        archivePrefixes.put(fileSystem, prefix);
+        for (Path archiveRoot : fileSystem.getRootDirectories()) {
+            walkTree(archiveRoot, dir -> { }, javaFileConsumer);
+        }
+    }
+
+    private void walkTree(Path root, Consumer<Path> directoryConsumer, Consumer<Path> javaFileConsumer) {
+        try {
+            Files.walkFileTree(root, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    if (!dir.equals(root) && isExcluded(root, dir, true)) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    directoryConsumer.accept(dir);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (!attrs.isRegularFile() || isExcluded(root, file, false)) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                    if (file.getFileName().toString().endsWith(".java")) {
+                        javaFileConsumer.accept(file);
+                    } else if (openArchives && isArchive(file)) {
+                        walkArchive(file, getFileName(root, file) + "!/", javaFileConsumer);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                    if (exc instanceof FileSystemLoopException) {
+                        System.err.println("Skipping symbolic link loop at " + file);
+                    } else {
+                        exc.printStackTrace();
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Whether a walk of {@code root} would hand {@code file} to its consumer, without looking at other files.
+     */
+    public boolean accepts(Path root, Path file) {
+        return file.startsWith(root) && !file.equals(root) && Files.isRegularFile(file)
+                && file.getFileName().toString().endsWith(".java") && !isExcluded(root, file, false)
+                && acceptsDirectory(root, file.getParent());
+    }
+
+    /**
+     * Whether a walk of {@code root} would enter {@code dir}.
+     */
+    public boolean acceptsDirectory(Path root, Path dir) {
+        if (!dir.startsWith(root)) {
+            return false;
+        }
+        for (; !dir.equals(root); dir = dir.getParent()) {
+            if (isExcluded(root, dir, true)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Closes the archives opened by earlier walks.
+     */
+    @Override
+    public void close() {
+        // nested archives are registered after their parents, so close them first
+        List<FileSystem> fileSystems = new ArrayList<>(archivePrefixes.keySet());
+        fileSystems.sort(Comparator.comparingInt((FileSystem fs) -> archivePrefixes.get(fs).length()).reversed());
+        for (FileSystem fileSystem : fileSystems) {
+            try {
+                fileSystem.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        archivePrefixes.clear();
+    }
+
+    /**
+     * Whether an exclude matches the file or directory {@code relativePath} itself, e.g. {@code a/b/C.java}
+     * relative to the root of a walk. Its parent directories are not checked.
+     */
+    boolean isExcluded(String relativePath, boolean directory) {
+        return !excludes.isEmpty() && isExcluded(Path.of(""), Path.of(relativePath), directory);
+    }
+
+    private boolean isExcluded(Path root, Path path, boolean directory) {
+        for (Exclude exclude : excludes) {
+            if ((directory || !exclude.directoryOnly) && exclude.matches(root, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static class Exclude {
+        private final PathMatcher matcher;
+        private final boolean directoryOnly;
+        private final boolean nameOnly;
+
+        Exclude(String glob) {
+            this.directoryOnly = glob.endsWith("/");
+            String pattern = directoryOnly ? glob.substring(0, glob.length() - 1) : glob;
+            this.nameOnly = !pattern.contains("/");
+            this.matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+        }
+
+        boolean matches(Path root, Path path) {
+            return matcher.matches(nameOnly ? path.getFileName() : root.relativize(path));
+        }
+    }
+}
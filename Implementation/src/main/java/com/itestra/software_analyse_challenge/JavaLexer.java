@@ -0,0 +1,268 @@
+package com.itestra.software_analyse_challenge;
+
+/**
+ * Incremental lexer that classifies the lines of one Java source file, fed one line at a time.
+ * <p>
+ * It knows line and block comments, string and char literals (with escapes) and text blocks, so comment
+ * markers inside literals and quotes inside comments are not mistaken for each other. Unicode escapes
+ * are translated first, as the compiler does. A block comment ends at the first {@code *}{@code /},
+ * even if it contains further comment openers.
+ * <p>
+ * Each line is trimmed and scanned in a single pass over the original string; most lines are plain code or
+ * plain comment, which a quick check finds without tracking literals. {@link #next(String)}
+ * returns the same {@link SourceLine} instance for every line, whose text and code are views on the
+ * line or on a reused buffer, so only lines with unicode escapes allocate.
+ */
+public class JavaLexer {
+
+    private static final int CODE = 0;
+    private static final int BLOCK_COMMENT = 1;
+    private static final int TEXT_BLOCK = 2;
+    private static final int STRING = 3;
+    private static final int CHAR = 4;
+    private static final int SHORT_LINE = 16;
+
+    private final SourceLine line = new SourceLine();
+    private final StringBuilder code = new StringBuilder();
+    private int state = CODE;
+
+    public JavaLexer() {
+    }
+
+    /**
+     * A lexer continuing after a line that ended in {@code state}, see {@link #getState()}.
+     */
+    JavaLexer(int state) {
+        this.state = state;
+    }
+
+    public SourceLine next(String rawLine) {
+        int start = 0;
+        int end = rawLine.length();
+        while (start < end && rawLine.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && rawLine.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (state == CODE && isPlainCode(rawLine, start, end)) {
+            // by far the most common case: the whole trimmed line is code
+            line.setCode(start == end ? SourceLine.Kind.BLANK : SourceLine.Kind.CODE, rawLine, start, end);
+            line.setText(rawLine, start, end);
+            return line;
+        }
+        if (state == BLOCK_COMMENT && isPlainComment(rawLine, start, end)) {
+            // a line of a Javadoc or other block comment
+            line.setCode(SourceLine.Kind.COMMENT, rawLine, start, start);
+            line.setText(rawLine, start, end);
+            return line;
+        }
+        boolean inTextBlock = state == TEXT_BLOCK;
+        if (rawLine.indexOf("\\u", start) == -1) {
+            scan(rawLine, start, end);
+        } else {
+            String translated = translateUnicodeEscapes(rawLine.substring(start, end));
+            scan(translated, 0, translated.length());
+        }
+        line.setText(rawLine, start, end);
+        line.setTextBlockContent(inTextBlock && state == TEXT_BLOCK);
+        return line;
+    }
+
+    /**
+     * Whether {@code source[start, end)} contains nothing that can start a comment, text block or unicode
+     * escape; a char literal alone changes nothing. A vectorised {@code indexOf} has a fixed cost per call,
+     * so short lines are checked in one plain loop instead.
+     */
+    private static boolean isPlainCode(String source, int start, int end) {
+        if (end - start < SHORT_LINE) {
+            for (int i = start; i < end; i++) {
+                char c = source.charAt(i);
+                if (c == '/' || c == '"' || c == '\\') {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return source.indexOf('/', start) < 0 && source.indexOf('"', start) < 0 && source.indexOf('\\', start) < 0;
+    }
+
+    /**
+     * Whether a block comment continues through {@code source[start, end)} without an unicode escape.
+     */
+    private static boolean isPlainComment(String source, int start, int end) {
+        return source.indexOf("*/", start) < 0 && source.indexOf('\\', start) < 0;
+    }
+
+    /**
+     * The state carried to the next line: code, or inside a block comment or text block.
+     */
+    int getState() {
+        return state;
+    }
+
+    /**
+     * Scans {@code source[start, end)} and sets kind and code of {@link #line}. Only trailing whitespace may
+     * follow {@code end}, so the searches do not need to be bounded.
+     */
+    private void scan(String source, int start, int end) {
+        boolean hasComment = state == BLOCK_COMMENT;
+        // start of the pending code segment, -1 while inside a comment
+        int codeStart = hasComment ? -1 : start;
+        if (code.length() > 0) {
+            // only lines with comments use the buffer, and setLength is not free
+            code.setLength(0);
+        }
+        int i = start;
+        while (i < end) {
+            if (state == BLOCK_COMMENT) {
+                int commentEnd = source.indexOf("*/", i);
+                if (commentEnd == -1) {
+                    break;
+                }
+                state = CODE;
+                i = commentEnd + 2;
+                codeStart = i;
+                continue;
+            }
+            if (state != CODE) {
+                i = skipLiteral(source, i, end);
+                continue;
+            }
+
+            char c = source.charAt(i);
+            while (c != '/' && c != '"' && c != '\'' && ++i < end) {
+                c = source.charAt(i);
+            }
+            if (i >= end) {
+                break;
+            }
+            if (c == '/') {
+                char n = i + 1 < end ? source.charAt(i + 1) : 0;
+                if (n == '/' || n == '*') {
+                    hasComment = true;
+                    appendCode(source, codeStart, i);
+                    codeStart = -1;
+                    if (n == '/') {
+                        break;
+                    }
+                    state = BLOCK_COMMENT;
+                    i += 2;
+                    continue;
+                }
+                i++;
+            } else if (c == '"') {
+                if (source.startsWith("\"\"\"", i)) {
+                    state = TEXT_BLOCK;
+                    i += 3;
+                } else {
+                    state = STRING;
+                    i++;
+                }
+            } else {
+                state = CHAR;
+                i++;
+            }
+        }
+        if (state == STRING || state == CHAR) {
+            // unterminated literal, the compiler would reject it; do not let it leak into the next line
+            state = CODE;
+        }
+
+        if (!hasComment) {
+            // by far the most common case: the whole trimmed line is code
+            line.setCode(start == end ? SourceLine.Kind.BLANK : SourceLine.Kind.CODE, source, start, end);
+            return;
+        }
+        if (codeStart >= 0) {
+            appendCode(source, codeStart, end);
+        }
+        int codeEnd = code.length();
+        while (codeEnd > 0 && code.charAt(codeEnd - 1) <= ' ') {
+            codeEnd--;
+        }
+        int codeBegin = 0;
+        while (codeBegin < codeEnd && code.charAt(codeBegin) <= ' ') {
+            codeBegin++;
+        }
+        line.setCode(codeEnd > codeBegin ? SourceLine.Kind.CODE : SourceLine.Kind.COMMENT, code, codeBegin, codeEnd);
+    }
+
+    /**
+     * Skips the content of the current literal starting at {@code i}, returns the index after its end
+     * or {@code end} if the literal continues.
+     */
+    private int skipLiteral(String source, int i, int end) {
+        char quote = state == CHAR ? '\'' : '"';
+        while (i < end) {
+            char c = source.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == quote && (state != TEXT_BLOCK || source.startsWith("\"\"\"", i))) {
+                i += state == TEXT_BLOCK ? 3 : 1;
+                state = CODE;
+                return i;
+            }
+            i++;
+        }
+        return end;
+    }
+
+    private void appendCode(String source, int start, int end) {
+        if (start >= 0 && end > start) {
+            code.append(source, start, end);
+        }
+    }
+
+    static String translateUnicodeEscapes(String text) {
+        StringBuilder sb = null;
+        int length = text.length();
+        int copied = 0;
+        int backslashes = 0;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c != '\\') {
+                backslashes = 0;
+                continue;
+            }
+            backslashes++;
+            if ((backslashes & 1) == 0 || i + 1 >= length || text.charAt(i + 1) != 'u') {
+                continue;
+            }
+            int j = i + 1;
+            while (j < length && text.charAt(j) == 'u') {
+                j++;
+            }
+            if (j + 4 > length) {
+                continue;
+            }
+            int value = 0;
+            boolean valid = true;
+            for (int k = j; k < j + 4; k++) {
+                int digit = Character.digit(text.charAt(k), 16);
+                if (digit < 0) {
+                    valid = false;
+                    break;
+                }
+                value = value << 4 | digit;
+            }
+            if (!valid) {
+                continue;
+            }
+            if (sb == null) {
+                sb = new StringBuilder(length);
+            }
+            sb.append(text, copied, i).append((char) value);
+            copied = j + 4;
+            i = copied - 1;
+            // a translated backslash never starts another escape
+            backslashes = 0;
+        }
+        if (sb == null) {
+            return text;
+        }
+        return sb.append(text, copied, length).toString();
+    }
+}
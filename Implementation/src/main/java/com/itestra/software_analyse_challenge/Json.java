@@ -0,0 +1,62 @@
+package com.itestra.software_analyse_challenge;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * The little JSON writing the output formats need, without a library.
+ */
+public class Json {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    public static void writeString(Writer out, String value) throws IOException {
+        out.write('"');
+        int start = 0;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= ' ' && c != '"' && c != '\\') {
+                continue;
+            }
+            out.write(value, start, i - start);
+            start = i + 1;
+            switch (c) {
+                case '"':
+                    out.write("\\\"");
+                    break;
+                case '\\':
+                    out.write("\\\\");
+                    break;
+                case '\n':
+                    out.write("\\n");
+                    break;
+                case '\r':
+                    out.write("\\r");
+                    break;
+                case '\t':
+                    out.write("\\t");
+                    break;
+                default:
+                    out.write("\\u00");
+                    out.write(HEX[c >> 4]);
+                    out.write(HEX[c & 0xf]);
+                    break;
+            }
+        }
+        out.write(value, start, length - start);
+        out.write('"');
+    }
+
+    public static void writeStrings(Writer out, List<String> values) throws IOException {
+        out.write('[');
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            writeString(out, values.get(i));
+        }
+        out.write(']');
+    }
+}
@@ -0,0 +1,75 @@
+package com.itestra.software_analyse_challenge;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * One JSON object per file, either as newline-delimited JSON or as the elements of one JSON array:
+ * {@code {"file":"a/B.java","sourceLines":12,"sourceLinesBonus":10,"dependencies":["spark"]}}. A missing
+ * bonus count is {@code null}.
+ */
+public class JsonOutputWriter implements OutputWriter {
+
+    private final Writer out;
+    private final boolean array;
+    private boolean first = true;
+
+    public JsonOutputWriter(Writer out, boolean array) {
+        this.out = out;
+        this.array = array;
+    }
+
+    @Override
+    public void write(String fileName, Output output) throws IOException {
+        beginElement();
+        out.write("{\"file\":");
+        Json.writeString(out, fileName);
+        out.write(",\"sourceLines\":");
+        out.write(output.getLineNumber());
+        out.write(",\"sourceLinesBonus\":");
+        out.write(output.hasLineNumberBonus() ? output.getLineNumberBonus() : "null");
+        out.write(",\"dependencies\":");
+        Json.writeStrings(out, output.getDependencyList());
+        out.write('}');
+        endElement();
+    }
+
+    @Override
+    public void remove(String fileName) throws IOException {
+        beginElement();
+        out.write("{\"file\":");
+        Json.writeString(out, fileName);
+        out.write(",\"removed\":true}");
+        endElement();
+    }
+
+    @Override
+    public void commit(String commit) throws IOException {
+        beginElement();
+        out.write("{\"commit\":");
+        Json.writeString(out, commit);
+        out.write('}');
+        endElement();
+    }
+
+    private void beginElement() throws IOException {
+        if (array) {
+            out.write(first ? "[\n" : ",\n");
+        }
+        first = false;
+    }
+
+    private void endElement() throws IOException {
+        if (!array) {
+            out.write('\n');
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (array) {
+            out.write(first ? "[]\n" : "\n]\n");
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,9 @@
+package com.itestra.software_analyse_challenge;
+
+/**
+ * Receives every line of a source file exactly once, in file order, as classified by a shared
+ * {@link JavaLexer}.
+ */
+public interface LineAnalyser {
+    void analyseLine(SourceLine line);
+}
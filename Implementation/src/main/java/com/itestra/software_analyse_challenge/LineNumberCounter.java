@@ -1,107 +1,56 @@
 package com.itestra.software_analyse_challenge;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
-import java.io.IOException;
-import java.util.regex.Pattern;
 
 public class LineNumberCounter {
+
     public static int computeLineNumber(File file) {
-        int count = 0;
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty() || line.startsWith("//")) {
-                    continue;
-                }
-                count++;
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
+        if (file.length() >= ChunkedLineCounter.PARALLEL_THRESHOLD) {
+            return ChunkedLineCounter.count(file.toPath(), SourceDecoder.DEFAULT_CHARSET).getSourceLines();
         }
-        return count;
+        SourceLineCounter counter = new SourceLineCounter();
+        FileAnalyser.analyse(file, counter);
+        return counter.getCount();
     }
 
     public static int computeLineNumberBonus(File file) {
-        int count = 0;
-        boolean inBlockComment = false;
-        boolean inGetter = false;
-        int braceDepth = 0;
-        Pattern getterPattern = Pattern.compile("^\\s*public\\s+[\\w<>\\[\\]]+\\s+get\\w+\\s*\\(\\s*\\)\\s*\\{?\\s*$");
-        Pattern getterBodyPattern = Pattern.compile("^\\s*return\\s+(this\\.)?\\w+\\s*;\\s*}?\\s*$");
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-
-                if (inBlockComment) {
-                    int endIndex = line.indexOf("*/");
-                    if (endIndex != -1) {
-                        inBlockComment = false;
-                        line = line.substring(endIndex + 2).trim();
-                    } else {
-                        continue;
-                    }
-                }
-
-                int startIndex = line.indexOf("/*");
-                if (startIndex != -1) {
-                    inBlockComment = true;
-                    int endIndex = line.indexOf("*/", startIndex + 2);
-                    if (endIndex != -1) {
-                        inBlockComment = false;
-                        line = line.substring(0, startIndex) + line.substring(endIndex + 2);
-                    } else {
-                        line = line.substring(0, startIndex);
-                    }
-                    line = line.trim();
-                }
-
-                if (inBlockComment) continue;
-
-                if (line.isEmpty() || line.startsWith("//")) continue;
+        if (file.length() >= ChunkedLineCounter.PARALLEL_THRESHOLD) {
+            return ChunkedLineCounter.count(file.toPath(), SourceDecoder.DEFAULT_CHARSET).getBonusLines();
+        }
+        BonusLineCounter counter = new BonusLineCounter();
+        FileAnalyser.analyse(file, counter);
+        return counter.getCount();
+    }
 
-                if (inGetter) {
-                    if (!getterBodyPattern.matcher(line).matches() && !(line.equals("{") || line.equals("}"))) {
-                        inGetter = false;
-                        count += 2;
-                        continue;
-                    }
+    /**
+     * Both counts of {@code file} from a single read, for callers that need both.
+     */
+    public static LineNumbers computeLineNumbers(File file) {
+        if (file.length() >= ChunkedLineCounter.PARALLEL_THRESHOLD) {
+            ChunkedLineCounter counter = ChunkedLineCounter.count(file.toPath(), SourceDecoder.DEFAULT_CHARSET);
+            return new LineNumbers(counter.getSourceLines(), counter.getBonusLines());
+        }
+        SourceLineCounter sourceLines = new SourceLineCounter();
+        BonusLineCounter bonusLines = new BonusLineCounter();
+        FileAnalyser.analyse(file, sourceLines, bonusLines);
+        return new LineNumbers(sourceLines.getCount(), bonusLines.getCount());
+    }
 
-                    for (char c : line.toCharArray()) {
-                        if (c == '{') braceDepth++;
-                        else if (c == '}') braceDepth--;
-                    }
-                    if (braceDepth <= 0) {
-                        inGetter = false;
-                        braceDepth = 0;
-                    }
-                    continue;
-                }
+    public static final class LineNumbers {
+        private final int lineNumber;
+        private final int lineNumberBonus;
 
-                if (getterPattern.matcher(line).matches()) {
-                    inGetter = true;
-                    braceDepth = countBraces(line);
-                    continue;
-                }
+        LineNumbers(int lineNumber, int lineNumberBonus) {
+            this.lineNumber = lineNumber;
+            this.lineNumberBonus = lineNumberBonus;
+        }
 
-                count++;
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
+        public int getLineNumber() {
+            return lineNumber;
         }
-        return count;
-    }
 
-    private static int countBraces(String line) {
-        int count = 0;
-        for (char c : line.toCharArray()) {
-            if (c == '{') count++;
-            else if (c == '}') count--;
+        public int getLineNumberBonus() {
+            return lineNumberBonus;
         }
-        return count;
     }
 }
@@ -0,0 +1,127 @@
+package com.itestra.software_analyse_challenge;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Computes the same source line count as {@link LineNumberCounter#computeLineNumber(File)} directly on
+ * the bytes of a file, without decoding or allocating per line. Files up to 1 MiB are read into a
+ * reused direct buffer per thread, larger ones are memory-mapped.
+ * <p>
+ * Every line is classified by a small state machine: leading bytes up to {@code ' '} are skipped like
+ * {@link String#trim()} does, a line is blank if nothing else follows and a comment if the first other
+ * bytes are {@code //}. Line breaks are {@code \n}, {@code \r} and {@code \r\n} as for
+ * {@link java.io.BufferedReader#readLine()}. This is exact for every ASCII-compatible encoding, since
+ * bytes of multi-byte characters are never below {@code 0x80}. A leading UTF-8 byte order mark is skipped
+ * like {@link SourceDecoder} does.
+ */
+public class MappedLineNumberCounter {
+
+    private static final int LINE_START = 0;
+    private static final int AFTER_SLASH = 1;
+    private static final int COUNTED = 2;
+    private static final int SKIPPED = 3;
+
+    private static final int READ_BUFFER_SIZE = 1 << 20;
+    private static final ThreadLocal<ByteBuffer> READ_BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(READ_BUFFER_SIZE));
+
+    public static int computeLineNumber(File file) {
+        return computeLineNumber(file.toPath());
+    }
+
+    public static int computeLineNumber(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long result = size <= READ_BUFFER_SIZE ? scanSmall(channel) : scanMapped(channel, size);
+            int state = (int) (result & 3);
+            return (int) (result >>> 2) + (state == AFTER_SLASH ? 1 : 0);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    private static long scanSmall(FileChannel channel) throws IOException {
+        ByteBuffer buffer = READ_BUFFER.get();
+        buffer.clear();
+        while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+            // fill the buffer
+        }
+        buffer.flip();
+        skipByteOrderMark(buffer);
+        return scan(buffer, LINE_START);
+    }
+
+    private static long scanMapped(FileChannel channel, long size) throws IOException {
+        long count = 0;
+        int state = LINE_START;
+        long position = 0;
+        while (position < size) {
+            long length = Math.min(Integer.MAX_VALUE, size - position);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            if (position == 0) {
+                skipByteOrderMark(buffer);
+            }
+            long result = scan(buffer, state);
+            count += result >>> 2;
+            state = (int) (result & 3);
+            position += length;
+        }
+        return count << 2 | state;
+    }
+
+    private static void skipByteOrderMark(ByteBuffer buffer) {
+        if (buffer.remaining() >= 3 && buffer.get(0) == (byte) 0xEF && buffer.get(1) == (byte) 0xBB && buffer.get(2) == (byte) 0xBF) {
+            buffer.position(3);
+        }
+    }
+
+    /**
+     * Counts the source lines of {@code buffer}, continuing a line in {@code state}. A line is counted as
+     * soon as its first significant byte is seen, except for a single {@code /} which is only counted
+     * at the following line break. Returns the count shifted left by two bits, or-ed with the final state.
+     */
+    static long scan(ByteBuffer buffer, int state) {
+        long count = 0;
+        int limit = buffer.limit();
+        for (int i = buffer.position(); i < limit; i++) {
+            byte b = buffer.get(i);
+            if (b == '\n' || b == '\r') {
+                if (state == AFTER_SLASH) {
+                    count++;
+                }
+                // a \n directly after \r belongs to the same line break; the empty "line" is blank anyway
+                state = LINE_START;
+                continue;
+            }
+            switch (state) {
+                case LINE_START:
+                    if ((b & 0xff) > ' ') {
+                        if (b == '/') {
+                            state = AFTER_SLASH;
+                        } else {
+                            state = COUNTED;
+                            count++;
+                        }
+                    }
+                    break;
+                case AFTER_SLASH:
+                    if (b == '/') {
+                        state = SKIPPED;
+                    } else {
+                        state = COUNTED;
+                        count++;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        return count << 2 | state;
+    }
+}
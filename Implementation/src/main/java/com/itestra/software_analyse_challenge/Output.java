@@ -33,4 +33,12 @@ public class Output {
     public String getDependencies() {
         return String.valueOf(dependencies);
     }
+
+    public boolean hasLineNumberBonus() {
+        return hasLineNumberBonus;
+    }
+
+    public List<String> getDependencyList() {
+        return dependencies;
+    }
 }
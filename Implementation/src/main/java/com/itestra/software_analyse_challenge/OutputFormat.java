@@ -0,0 +1,50 @@
+package com.itestra.software_analyse_challenge;
+
+import java.io.Writer;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.function.Function;
+
+/**
+ * A named way of writing the result. Besides the built-in formats, further ones can be registered as
+ * {@link ServiceLoader} providers of this interface.
+ */
+public interface OutputFormat {
+
+    OutputFormat TABLE = of("table", TableOutputWriter::new);
+    OutputFormat CSV = of("csv", CsvOutputWriter::new);
+    OutputFormat JSON = of("json", out -> new JsonOutputWriter(out, true));
+    OutputFormat NDJSON = of("ndjson", out -> new JsonOutputWriter(out, false));
+
+    String getName();
+
+    OutputWriter open(Writer out);
+
+    static OutputFormat of(String name, Function<Writer, OutputWriter> factory) {
+        return new OutputFormat() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public OutputWriter open(Writer out) {
+                return factory.apply(out);
+            }
+        };
+    }
+
+    static OutputFormat forName(String name) {
+        for (OutputFormat format : List.of(TABLE, CSV, JSON, NDJSON)) {
+            if (format.getName().equals(name)) {
+                return format;
+            }
+        }
+        for (OutputFormat format : ServiceLoader.load(OutputFormat.class)) {
+            if (format.getName().equals(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown output format " + name);
+    }
+}
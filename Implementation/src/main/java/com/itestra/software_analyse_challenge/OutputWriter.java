@@ -0,0 +1,29 @@
+package com.itestra.software_analyse_challenge;
+
+import java.io.IOException;
+
+/**
+ * Writes the result of one run in some {@link OutputFormat}, one file at a time in file name order.
+ * Streaming formats write every file immediately; {@link #finish()} writes whatever is still buffered and
+ * flushes, but does not close the underlying writer.
+ */
+public interface OutputWriter {
+
+    void write(String fileName, Output output) throws IOException;
+
+    /**
+     * Reports that a file of an earlier result is gone, used for the updates of {@code --watch}. Formats
+     * without a way to express this ignore it.
+     */
+    default void remove(String fileName) throws IOException {
+    }
+
+    /**
+     * Reports that the following files belong to the given commit, used by {@code --git} before the
+     * changes of each commit.
+     */
+    default void commit(String commit) throws IOException {
+    }
+
+    void finish() throws IOException;
+}
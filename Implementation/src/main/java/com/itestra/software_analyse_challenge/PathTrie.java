@@ -0,0 +1,168 @@
+package com.itestra.software_analyse_challenge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interns {@code /}-separated paths as nodes of a trie of path segments. Every distinct segment string is
+ * stored once and every node only costs its parent and segment id, so the many files of one directory
+ * share their directory prefix.
+ * <p>
+ * Node 0 is the root, the empty path. Children are found through an open-addressing hash table keyed by
+ * parent and segment id.
+ */
+public class PathTrie {
+
+    private static final long EMPTY = -1L;
+
+    private final List<String> segments = new ArrayList<>();
+    private final Map<String, Integer> segmentIds = new HashMap<>();
+    private int[] parents = new int[16];
+    private int[] segmentOf = new int[16];
+    private int nodeCount = 1;
+
+    private long[] childKeys = new long[32];
+    private int[] childNodes = new int[32];
+
+    public PathTrie() {
+        Arrays.fill(childKeys, EMPTY);
+        parents[0] = -1;
+        segmentOf[0] = -1;
+    }
+
+    /**
+     * Returns the node of {@code path}, adding it and its missing ancestors.
+     */
+    public int add(String path) {
+        int node = 0;
+        int start = 0;
+        while (start <= path.length()) {
+            int end = path.indexOf('/', start);
+            if (end == -1) {
+                end = path.length();
+            }
+            String segment = path.substring(start, end);
+            Integer segmentId = segmentIds.get(segment);
+            if (segmentId == null) {
+                segmentId = segments.size();
+                segments.add(segment);
+                segmentIds.put(segment, segmentId);
+            }
+            int child = child(node, segmentId);
+            node = child >= 0 ? child : addNode(node, segmentId);
+            start = end + 1;
+        }
+        return node;
+    }
+
+    /**
+     * Returns the node of {@code path} or -1 if it was never added.
+     */
+    public int find(String path) {
+        int node = 0;
+        int start = 0;
+        while (start <= path.length()) {
+            int end = path.indexOf('/', start);
+            if (end == -1) {
+                end = path.length();
+            }
+            Integer segmentId = segmentIds.get(path.substring(start, end));
+            if (segmentId == null) {
+                return -1;
+            }
+            node = child(node, segmentId);
+            if (node < 0) {
+                return -1;
+            }
+            start = end + 1;
+        }
+        return node;
+    }
+
+    public String getPath(int node) {
+        if (node == 0) {
+            return "";
+        }
+        int length = -1;
+        for (int n = node; n != 0; n = parents[n]) {
+            length += segments.get(segmentOf[n]).length() + 1;
+        }
+        char[] path = new char[length];
+        int end = length;
+        for (int n = node; n != 0; n = parents[n]) {
+            String segment = segments.get(segmentOf[n]);
+            end -= segment.length();
+            segment.getChars(0, segment.length(), path, end);
+            if (end > 0) {
+                path[--end] = '/';
+            }
+        }
+        return new String(path);
+    }
+
+    /**
+     * Number of nodes including the root.
+     */
+    public int size() {
+        return nodeCount;
+    }
+
+    private int addNode(int parent, int segmentId) {
+        if (nodeCount == parents.length) {
+            parents = Arrays.copyOf(parents, nodeCount * 2);
+            segmentOf = Arrays.copyOf(segmentOf, nodeCount * 2);
+        }
+        if ((nodeCount + 1) * 2 > childKeys.length) {
+            rehash(childKeys.length * 2);
+        }
+        int node = nodeCount++;
+        parents[node] = parent;
+        segmentOf[node] = segmentId;
+        insert(key(parent, segmentId), node);
+        return node;
+    }
+
+    private int child(int parent, int segmentId) {
+        long key = key(parent, segmentId);
+        int mask = childKeys.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            if (childKeys[slot] == key) {
+                return childNodes[slot];
+            }
+            if (childKeys[slot] == EMPTY) {
+                return -1;
+            }
+        }
+    }
+
+    private void insert(long key, int node) {
+        int mask = childKeys.length - 1;
+        int slot = hash(key) & mask;
+        while (childKeys[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        childKeys[slot] = key;
+        childNodes[slot] = node;
+    }
+
+    private void rehash(int capacity) {
+        childKeys = new long[capacity];
+        childNodes = new int[capacity];
+        Arrays.fill(childKeys, EMPTY);
+        for (int node = 1; node < nodeCount; node++) {
+            insert(key(parents[node], segmentOf[node]), node);
+        }
+    }
+
+    private static long key(int parent, int segmentId) {
+        return (long) parent << 32 | segmentId;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ h >>> 32);
+    }
+}
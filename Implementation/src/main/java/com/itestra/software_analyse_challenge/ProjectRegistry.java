@@ -0,0 +1,163 @@
+package com.itestra.software_analyse_challenge;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Maps package prefixes of imports to the project they belong to, e.g. {@code cronutils} to
+ * {@code cron-utils} or {@code com.acme.billing} to {@code billing}. A prefix matches whole package
+ * segments only and the longest matching prefix wins.
+ * <p>
+ * The prefixes are compiled into a character trie with the children of each node stored contiguously
+ * ({@code childStart}, {@code childChars}, {@code childNodes}), so resolving a name walks it once without
+ * splitting or allocating.
+ */
+public class ProjectRegistry {
+
+    public static final ProjectRegistry DEFAULT = new ProjectRegistry(Map.of(
+            "cronutils", "cron-utils",
+            "fig", "fig",
+            "spark", "spark"));
+
+    private final SortedMap<String, String> prefixes;
+    private final List<String> projectNames;
+    private final int[] childStart;
+    private final char[] childChars;
+    private final int[] childNodes;
+    private final int[] nodeProject;
+
+    public ProjectRegistry(Map<String, String> prefixes) {
+        this.prefixes = Collections.unmodifiableSortedMap(new TreeMap<>(prefixes));
+        this.projectNames = List.copyOf(new TreeSet<>(prefixes.values()));
+
+        // nodes in breadth-first order, so that the children of every node are numbered consecutively
+        List<List<String>> levels = new ArrayList<>();
+        List<String> nodePrefixes = new ArrayList<>();
+        nodePrefixes.add("");
+        Map<String, Integer> nodeIds = new HashMap<>();
+        nodeIds.put("", 0);
+        int maxLength = 0;
+        for (String prefix : this.prefixes.keySet()) {
+            if (prefix.isEmpty() || prefix.startsWith(".") || prefix.endsWith(".")) {
+                throw new IllegalArgumentException("Invalid package prefix '" + prefix + "'");
+            }
+            maxLength = Math.max(maxLength, prefix.length());
+        }
+        for (int length = 1; length <= maxLength; length++) {
+            SortedSet<String> level = new TreeSet<>();
+            for (String prefix : this.prefixes.keySet()) {
+                if (prefix.length() >= length) {
+                    level.add(prefix.substring(0, length));
+                }
+            }
+            levels.add(new ArrayList<>(level));
+        }
+        for (List<String> level : levels) {
+            for (String node : level) {
+                nodeIds.put(node, nodePrefixes.size());
+                nodePrefixes.add(node);
+            }
+        }
+
+        int nodeCount = nodePrefixes.size();
+        childStart = new int[nodeCount + 1];
+        childChars = new char[nodeCount - 1];
+        childNodes = new int[nodeCount - 1];
+        nodeProject = new int[nodeCount];
+        int[] childCount = new int[nodeCount];
+        for (int node = 1; node < nodeCount; node++) {
+            String prefix = nodePrefixes.get(node);
+            childCount[nodeIds.get(prefix.substring(0, prefix.length() - 1))]++;
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            childStart[node + 1] = childStart[node] + childCount[node];
+        }
+        // breadth-first numbering visits the children of each parent in order, sorted by character
+        int[] filled = Arrays.copyOf(childStart, nodeCount);
+        for (int node = 1; node < nodeCount; node++) {
+            String prefix = nodePrefixes.get(node);
+            int parent = nodeIds.get(prefix.substring(0, prefix.length() - 1));
+            childChars[filled[parent]] = prefix.charAt(prefix.length() - 1);
+            childNodes[filled[parent]++] = node;
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            String project = this.prefixes.get(nodePrefixes.get(node));
+            nodeProject[node] = project == null ? -1 : Collections.binarySearch(projectNames, project);
+        }
+    }
+
+    /**
+     * Reads {@code prefix=project} lines in {@link Properties} format, e.g. {@code com.acme.billing=billing}.
+     */
+    public static ProjectRegistry load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+        Map<String, String> prefixes = new HashMap<>();
+        for (String prefix : properties.stringPropertyNames()) {
+            prefixes.put(prefix.trim(), properties.getProperty(prefix).trim());
+        }
+        return new ProjectRegistry(prefixes);
+    }
+
+    /**
+     * The project of the qualified name {@code name[start, end)}, or {@code null} if no prefix matches.
+     */
+    public String resolve(CharSequence name, int start, int end) {
+        int node = 0;
+        int project = -1;
+        for (int i = start; i < end; i++) {
+            char c = name.charAt(i);
+            if (c == '.' && nodeProject[node] >= 0) {
+                project = nodeProject[node];
+            }
+            node = child(node, c);
+            if (node < 0) {
+                return project < 0 ? null : projectNames.get(project);
+            }
+        }
+        if (nodeProject[node] >= 0) {
+            project = nodeProject[node];
+        }
+        return project < 0 ? null : projectNames.get(project);
+    }
+
+    public String resolve(CharSequence name) {
+        return resolve(name, 0, name.length());
+    }
+
+    /**
+     * All configured prefixes and their projects, sorted by prefix.
+     */
+    public SortedMap<String, String> getPrefixes() {
+        return prefixes;
+    }
+
+    /**
+     * All distinct project names, sorted.
+     */
+    public List<String> getProjectNames() {
+        return projectNames;
+    }
+
+    private int child(int node, char c) {
+        int low = childStart[node];
+        int high = childStart[node + 1] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char candidate = childChars[middle];
+            if (candidate < c) {
+                low = middle + 1;
+            } else if (candidate > c) {
+                high = middle - 1;
+            } else {
+                return childNodes[middle];
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,178 @@
+package com.itestra.software_analyse_challenge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * The reverse edges of an {@link ImportGraph}, to find the files depending on a file or a project directly or
+ * through any chain of imports, e.g. when its API changes.
+ * <p>
+ * The files importing a file are kept as sorted ids, delta-encoded as variable-length ints in one byte array
+ * with an offset per file, so an edge usually takes one byte. The files depending on a file are found by a
+ * breadth-first search over them. The files depending on a project follow from the transitive project sets of
+ * the graph and are kept per project as {@link FileBitmap}s.
+ */
+public class ReverseDependencyIndex {
+
+    private final List<String> fileNames;
+    private final List<String> projectNames;
+    private final int[] importerOffsets;
+    private final byte[] importers;
+    private final FileBitmap[] projectDependents;
+
+    private ReverseDependencyIndex(List<String> fileNames, List<String> projectNames, int[] importerOffsets, byte[] importers,
+                                   FileBitmap[] projectDependents) {
+        this.fileNames = fileNames;
+        this.projectNames = projectNames;
+        this.importerOffsets = importerOffsets;
+        this.importers = importers;
+        this.projectDependents = projectDependents;
+    }
+
+    static ReverseDependencyIndex build(ImportGraph graph) {
+        int fileCount = graph.size();
+        int[] edgeStart = graph.getEdgeStart();
+        int[] edgeTargets = graph.getEdgeTargets();
+
+        int[] reverseStart = new int[fileCount + 1];
+        for (int target : edgeTargets) {
+            reverseStart[target + 1]++;
+        }
+        for (int id = 0; id < fileCount; id++) {
+            reverseStart[id + 1] += reverseStart[id];
+        }
+        int[] reverseSources = new int[edgeTargets.length];
+        int[] next = reverseStart.clone();
+        for (int source = 0; source < fileCount; source++) {
+            for (int e = edgeStart[source]; e < edgeStart[source + 1]; e++) {
+                reverseSources[next[edgeTargets[e]]++] = source;
+            }
+        }
+
+        int[] importerOffsets = new int[fileCount + 1];
+        byte[] importers = new byte[edgeTargets.length + 16];
+        int length = 0;
+        for (int id = 0; id < fileCount; id++) {
+            importerOffsets[id] = length;
+            int previous = -1;
+            for (int i = reverseStart[id]; i < reverseStart[id + 1]; i++) {
+                int source = reverseSources[i];
+                if (source == previous) {
+                    continue;
+                }
+                if (length + 5 > importers.length) {
+                    importers = Arrays.copyOf(importers, importers.length * 2);
+                }
+                length = writeVarInt(importers, length, source - previous);
+                previous = source;
+            }
+        }
+        importerOffsets[fileCount] = length;
+
+        int words = graph.getWords();
+        long[] dependencyBits = graph.getDependencyBits();
+        List<String> projectNames = graph.getProjectNames();
+        FileBitmap.Builder[] builders = new FileBitmap.Builder[projectNames.size()];
+        for (int project = 0; project < builders.length; project++) {
+            builders[project] = new FileBitmap.Builder();
+        }
+        for (int id = 0; id < fileCount; id++) {
+            for (int w = 0; w < words; w++) {
+                long bits = dependencyBits[id * words + w];
+                while (bits != 0) {
+                    builders[w * 64 + Long.numberOfTrailingZeros(bits)].add(id);
+                    bits &= bits - 1;
+                }
+            }
+        }
+        FileBitmap[] projectDependents = new FileBitmap[builders.length];
+        for (int project = 0; project < builders.length; project++) {
+            projectDependents[project] = builders[project].build();
+        }
+        return new ReverseDependencyIndex(graph.getFileNames(), projectNames, importerOffsets, Arrays.copyOf(importers, length),
+                projectDependents);
+    }
+
+    private static int writeVarInt(byte[] target, int position, int value) {
+        while ((value & ~0x7f) != 0) {
+            target[position++] = (byte) (value & 0x7f | 0x80);
+            value >>>= 7;
+        }
+        target[position++] = (byte) value;
+        return position;
+    }
+
+    /**
+     * Calls {@code action} with the files importing file {@code id} directly, in id order.
+     */
+    public void forEachImporter(int id, IntConsumer action) {
+        int position = importerOffsets[id];
+        int importer = -1;
+        while (position < importerOffsets[id + 1]) {
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = importers[position++];
+                delta |= (b & 0x7f) << shift;
+                shift += 7;
+            } while (b < 0);
+            importer += delta;
+            action.accept(importer);
+        }
+    }
+
+    /**
+     * The files importing file {@code id} directly or through any chain of imports, without the file itself.
+     */
+    public FileBitmap getFileDependents(int id) {
+        long[] reached = new long[(fileNames.size() + 63) >>> 6];
+        int[] queue = new int[fileNames.size()];
+        int[] tail = {1};
+        queue[0] = id;
+        for (int head = 0; head < tail[0]; head++) {
+            forEachImporter(queue[head], importer -> {
+                if ((reached[importer >>> 6] & 1L << importer) == 0) {
+                    reached[importer >>> 6] |= 1L << importer;
+                    queue[tail[0]++] = importer;
+                }
+            });
+        }
+        // reached again if it is part of an import cycle
+        reached[id >>> 6] &= ~(1L << id);
+        return FileBitmap.of(reached);
+    }
+
+    /**
+     * The files depending on the project with the given index in {@link ImportGraph#getProjectNames()}.
+     */
+    public FileBitmap getProjectDependents(int project) {
+        return projectDependents[project];
+    }
+
+    /**
+     * The names of the files depending on a file, if {@code name} ends with {@code .java}, or else on a project.
+     * A project no file depends on has no dependents.
+     *
+     * @throws IllegalArgumentException if there is no such file
+     */
+    public List<String> getDependents(String name) {
+        FileBitmap dependents;
+        if (name.endsWith(".java")) {
+            int id = Collections.binarySearch(fileNames, name);
+            if (id < 0) {
+                throw new IllegalArgumentException("Unknown file " + name);
+            }
+            dependents = getFileDependents(id);
+        } else {
+            int project = Collections.binarySearch(projectNames, name);
+            dependents = project < 0 ? FileBitmap.EMPTY : projectDependents[project];
+        }
+        List<String> result = new ArrayList<>(dependents.size());
+        dependents.forEach(id -> result.add(fileNames.get(id)));
+        return result;
+    }
+}
@@ -0,0 +1,285 @@
+package com.itestra.software_analyse_challenge;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Wall and CPU time of the phases of one run and per-file latencies, written as a JSON report for
+ * {@code --metrics}.
+ * <p>
+ * The CPU time of a phase is the CPU time of the thread running it plus the CPU time of the files other
+ * threads analysed for it. Per-file latencies go into a {@link LatencyHistogram} and the slowest files are
+ * kept. Independent of {@code --metrics}, every phase and file is a JFR event ({@code com.itestra.Phase},
+ * {@code com.itestra.FileAnalysis}) that is recorded when a flight recording enables it, e.g. with
+ * {@code -XX:StartFlightRecording}.
+ */
+public class RunMetrics {
+
+    /**
+     * Measures nothing but still emits the JFR events.
+     */
+    public static final RunMetrics DISABLED = new RunMetrics(0, false);
+
+    static final int DEFAULT_SLOWEST_FILES = 10;
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99", "p999"};
+
+    private final boolean enabled;
+    private final int slowestCount;
+    private final long start = System.nanoTime();
+    private final List<Phase> phases = Collections.synchronizedList(new ArrayList<>());
+    private final LatencyHistogram fileLatencies = new LatencyHistogram();
+    private final LongAdder bytes = new LongAdder();
+    // the slowest files, fastest first
+    private final PriorityQueue<FileTiming> slowest = new PriorityQueue<>(Comparator.comparingLong((FileTiming t) -> t.nanos));
+    private volatile long slowestThreshold;
+    private volatile Phase filePhase;
+
+    public RunMetrics(int slowestCount) {
+        this(slowestCount, true);
+    }
+
+    private RunMetrics(int slowestCount, boolean enabled) {
+        this.slowestCount = slowestCount;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts measuring the phase {@code name} on the current thread until the returned phase is closed.
+     */
+    public Phase phase(String name) {
+        Phase phase = new Phase(name, enabled);
+        if (enabled) {
+            phases.add(phase);
+        }
+        return phase;
+    }
+
+    /**
+     * Runs {@code analyser} for {@code file} and records its latency as part of {@code phase}.
+     */
+    public FileAnalysis analyse(Phase phase, String fileName, Path file, Supplier<FileAnalysis> analyser) {
+        FileAnalysisEvent event = new FileAnalysisEvent();
+        long cpuStart = enabled ? THREADS.getCurrentThreadCpuTime() : 0;
+        long fileStart = System.nanoTime();
+        event.begin();
+        FileAnalysis analysis = analyser.get();
+        event.end();
+        long nanos = System.nanoTime() - fileStart;
+        if (event.shouldCommit()) {
+            event.file = fileName;
+            event.sourceLines = analysis.getLineNumber();
+            event.commit();
+        }
+        if (enabled) {
+            filePhase = phase;
+            if (Thread.currentThread() != phase.thread) {
+                phase.otherCpu.add(THREADS.getCurrentThreadCpuTime() - cpuStart);
+            }
+            recordFile(fileName, size(file), nanos);
+        }
+        return analysis;
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    void recordFile(String fileName, long size, long nanos) {
+        fileLatencies.record(nanos);
+        bytes.add(size);
+        if (slowestCount > 0 && nanos > slowestThreshold) {
+            synchronized (slowest) {
+                slowest.add(new FileTiming(fileName, size, nanos));
+                if (slowest.size() > slowestCount) {
+                    slowest.poll();
+                }
+                if (slowest.size() == slowestCount) {
+                    slowestThreshold = slowest.peek().nanos;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the report, phases in the order they were started and the slowest files slowest first.
+     */
+    public void write(Writer out) throws IOException {
+        long wall = System.nanoTime() - start;
+        long files = fileLatencies.getCount();
+        long fileBytes = bytes.sum();
+        // throughput refers to the wall time of the phase the files were analysed in
+        double fileSeconds = filePhase == null ? 0 : filePhase.wall / 1e9;
+        out.write("{\n  \"wallMillis\": ");
+        out.write(millis(wall));
+        out.write(",\n  \"files\": ");
+        out.write(Long.toString(files));
+        out.write(",\n  \"bytes\": ");
+        out.write(Long.toString(fileBytes));
+        out.write(",\n  \"filesPerSecond\": ");
+        out.write(rate(files, fileSeconds));
+        out.write(",\n  \"bytesPerSecond\": ");
+        out.write(rate(fileBytes, fileSeconds));
+        out.write(",\n  \"phases\": [");
+        synchronized (phases) {
+            for (int i = 0; i < phases.size(); i++) {
+                Phase phase = phases.get(i);
+                out.write(i == 0 ? "\n    {\"name\": " : ",\n    {\"name\": ");
+                Json.writeString(out, phase.name);
+                out.write(", \"wallMillis\": ");
+                out.write(millis(phase.wall));
+                out.write(", \"cpuMillis\": ");
+                out.write(millis(phase.cpu + phase.otherCpu.sum()));
+                out.write('}');
+            }
+        }
+        out.write("\n  ],\n  \"fileLatencyMicros\": {\"count\": ");
+        out.write(Long.toString(files));
+        out.write(", \"min\": ");
+        out.write(micros(fileLatencies.getMin()));
+        out.write(", \"mean\": ");
+        out.write(micros((long) fileLatencies.getMean()));
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            out.write(", \"" + PERCENTILE_NAMES[i] + "\": ");
+            out.write(micros(fileLatencies.getValueAtPercentile(PERCENTILES[i])));
+        }
+        out.write(", \"max\": ");
+        out.write(micros(fileLatencies.getMax()));
+        out.write("},\n  \"slowestFiles\": [");
+        List<FileTiming> timings;
+        synchronized (slowest) {
+            timings = new ArrayList<>(slowest);
+        }
+        timings.sort(Comparator.comparingLong((FileTiming t) -> t.nanos).reversed());
+        for (int i = 0; i < timings.size(); i++) {
+            FileTiming timing = timings.get(i);
+            out.write(i == 0 ? "\n    {\"file\": " : ",\n    {\"file\": ");
+            Json.writeString(out, timing.fileName);
+            out.write(", \"micros\": ");
+            out.write(micros(timing.nanos));
+            out.write(", \"bytes\": ");
+            out.write(Long.toString(timing.bytes));
+            out.write('}');
+        }
+        out.write("\n  ]\n}\n");
+        out.flush();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+    }
+
+    private static String micros(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1e3);
+    }
+
+    private static String rate(long amount, double seconds) {
+        return seconds == 0 ? "0" : String.format(Locale.ROOT, "%.1f", amount / seconds);
+    }
+
+    /**
+     * One measured phase. Time in {@link #pause()}..{@link #resume()} intervals does not count, e.g. the
+     * analysis of files the walk hands over.
+     */
+    public static class Phase implements AutoCloseable {
+        private final String name;
+        private final boolean enabled;
+        private final Thread thread = Thread.currentThread();
+        private final LongAdder otherCpu = new LongAdder();
+        private final PhaseEvent event = new PhaseEvent();
+        private long wall;
+        private long cpu;
+        private long pausedAt;
+        private long pausedCpuAt;
+
+        Phase(String name, boolean enabled) {
+            this.name = name;
+            this.enabled = enabled;
+            event.begin();
+            if (enabled) {
+                wall = -System.nanoTime();
+                cpu = -THREADS.getCurrentThreadCpuTime();
+            }
+        }
+
+        public void pause() {
+            if (enabled) {
+                pausedAt = System.nanoTime();
+                pausedCpuAt = THREADS.getCurrentThreadCpuTime();
+            }
+        }
+
+        public void resume() {
+            if (enabled) {
+                wall -= System.nanoTime() - pausedAt;
+                cpu -= THREADS.getCurrentThreadCpuTime() - pausedCpuAt;
+            }
+        }
+
+        @Override
+        public void close() {
+            event.end();
+            if (event.shouldCommit()) {
+                event.phase = name;
+                event.commit();
+            }
+            if (enabled) {
+                wall += System.nanoTime();
+                cpu += THREADS.getCurrentThreadCpuTime();
+            }
+        }
+    }
+
+    private static class FileTiming {
+        private final String fileName;
+        private final long bytes;
+        private final long nanos;
+
+        FileTiming(String fileName, long bytes, long nanos) {
+            this.fileName = fileName;
+            this.bytes = bytes;
+            this.nanos = nanos;
+        }
+    }
+
+    @Name("com.itestra.Phase")
+    @Label("Analysis Phase")
+    @Category("Source Code Analyser")
+    static class PhaseEvent extends Event {
+        @Label("Phase")
+        String phase;
+    }
+
+    @Name("com.itestra.FileAnalysis")
+    @Label("File Analysis")
+    @Category("Source Code Analyser")
+    static class FileAnalysisEvent extends Event {
+        @Label("File")
+        String file;
+
+        @Label("Source Lines")
+        int sourceLines;
+    }
+}
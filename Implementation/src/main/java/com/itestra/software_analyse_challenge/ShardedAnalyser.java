@@ -0,0 +1,122 @@
+package com.itestra.software_analyse_challenge;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits the analysis of a tree across worker processes, for {@code --shards}.
+ * <p>
+ * Every file belongs to shard {@code hash(file name) mod n}. The coordinator starts one JVM per shard with
+ * the same class path and heap options; each worker walks the whole tree but only analyses the files of its
+ * shard and writes their results, sorted by file name, as a partial file in the run format of
+ * {@link SpillingAnalyser}. The coordinator then merges the partials like spilled runs and computes the
+ * transitive dependencies over all of them, resolving imports by exact type name, so the output is the same
+ * as that of a single process.
+ */
+public class ShardedAnalyser {
+
+    private ShardedAnalyser() {
+    }
+
+    /**
+     * Runs {@code input.getShardCount()} workers and writes the merged result.
+     */
+    @SuppressWarnings("try")
+    public static void analyse(Input input, Writer out, RunMetrics metrics) throws IOException, InterruptedException {
+        Path directory = Files.createTempDirectory("source-code-analyser-shards");
+        try (SpillingAnalyser merger = new SpillingAnalyser(Long.MAX_VALUE)) {
+            try (RunMetrics.Phase phase = metrics.phase("shards")) {
+                List<Process> workers = new ArrayList<>();
+                try {
+                    for (int shard = 0; shard < input.getShardCount(); shard++) {
+                        Path partial = directory.resolve("shard-" + shard);
+                        workers.add(new ProcessBuilder(workerCommand(input, shard, partial))
+                                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                                .start());
+                        merger.addRun(partial);
+                    }
+                    for (int shard = 0; shard < workers.size(); shard++) {
+                        int exitCode = workers.get(shard).waitFor();
+                        if (exitCode != 0) {
+                            throw new IOException("Worker of shard " + shard + " failed with exit code " + exitCode);
+                        }
+                    }
+                } finally {
+                    workers.forEach(Process::destroy);
+                }
+            }
+            merger.write(input.getFormat(), out, metrics);
+        } finally {
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    /**
+     * Analyses the files of the shard {@code input.getShardIndex()} and writes the partial result.
+     */
+    public static void analyseShard(Input input) throws IOException {
+        try (SpillingAnalyser analyser = new SpillingAnalyser(input.getSpillBudget() > 0 ? input.getSpillBudget() : Long.MAX_VALUE)) {
+            analyser.analyseFiles(input, RunMetrics.DISABLED);
+            analyser.writeRun(input.getShardFile());
+        }
+    }
+
+    /**
+     * Whether {@code fileName} belongs to shard {@code index} of {@code count}.
+     */
+    static boolean isInShard(String fileName, int index, int count) {
+        return Math.floorMod(SpillingAnalyser.hash(fileName), count) == index;
+    }
+
+    private static List<String> workerCommand(Input input, int shard, Path partial) {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        // the heap limits are the reason to shard, so the workers get the same; other options stay with the coordinator
+        for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (argument.startsWith("-Xmx") || argument.startsWith("-Xms") || argument.startsWith("-Xss")) {
+                command.add(argument);
+            }
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(SourceCodeAnalyser.class.getName());
+        command.add("-i");
+        command.add(input.getInputDirectory().getPath());
+        command.add("-t");
+        command.add(Integer.toString(input.getThreads()));
+        command.add("-e");
+        command.add(input.getEncoding().name());
+        if (input.isDedup()) {
+            // only files of the same shard are compared, each worker prints its own summary
+            command.add("--dedup");
+        }
+        for (String exclude : input.getExcludes()) {
+            command.add("-x");
+            command.add(exclude);
+        }
+        for (Map.Entry<String, String> mapping : input.getProjects().getPrefixes().entrySet()) {
+            command.add("-P");
+            command.add(mapping.getKey() + "=" + mapping.getValue());
+        }
+        if (input.getCacheFile() != null) {
+            // one cache per shard, the workers would overwrite each other's
+            command.add("-c");
+            command.add(input.getCacheFile() + "." + shard + "of" + input.getShardCount());
+        }
+        if (input.getSpillBudget() > 0) {
+            command.add("--spill");
+            command.add(Long.toString(input.getSpillBudget()));
+        }
+        command.add("--shard");
+        command.add(shard + "/" + input.getShardCount());
+        command.add(partial.toString());
+        return command;
+    }
+}
@@ -0,0 +1,190 @@
+package com.itestra.software_analyse_challenge;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two {@link AnalysisSnapshot}s, e.g. of the base and the head of a pull request, for {@code --diff}.
+ * <p>
+ * Both snapshots are sorted by file name, so a single merge-join pass finds the added, removed and changed
+ * files and writes them as it goes. On the way it sums up the source lines of every project and counts the
+ * files behind every cross-project dependency, from the project of a file's package to a project it depends
+ * on; the dependencies only one side has and the projects whose source lines changed are written at the end.
+ */
+public class SnapshotDiff {
+
+    private final Side base;
+    private final Side head;
+    private int changedFiles;
+
+    private SnapshotDiff(AnalysisSnapshot base, AnalysisSnapshot head) {
+        this.base = new Side(base);
+        this.head = new Side(head);
+    }
+
+    public static void write(AnalysisSnapshot base, AnalysisSnapshot head, Writer out) throws IOException {
+        new SnapshotDiff(base, head).merge(base, head, out);
+    }
+
+    private void merge(AnalysisSnapshot base, AnalysisSnapshot head, Writer out) throws IOException {
+        out.write("Files:\n");
+        int i = 0;
+        int j = 0;
+        String baseName = base.size() > 0 ? base.getFileName(0) : null;
+        String headName = head.size() > 0 ? head.getFileName(0) : null;
+        while (baseName != null || headName != null) {
+            int order = baseName == null ? 1 : headName == null ? -1 : baseName.compareTo(headName);
+            if (order < 0) {
+                out.write("  - " + baseName + ": " + base.getLineNumber(i) + " source lines\n");
+                changedFiles++;
+            } else if (order > 0) {
+                out.write("  + " + headName + ": " + head.getLineNumber(j) + " source lines, bonus " + head.getLineNumberBonus(j)
+                        + ", dependencies " + head.getDependencies(j) + "\n");
+                changedFiles++;
+            } else {
+                writeChange(base, i, head, j, out);
+            }
+            if (order <= 0) {
+                this.base.count(i);
+                baseName = ++i < base.size() ? base.getFileName(i) : null;
+            }
+            if (order >= 0) {
+                this.head.count(j);
+                headName = ++j < head.size() ? head.getFileName(j) : null;
+            }
+        }
+        if (changedFiles == 0) {
+            out.write("  (none)\n");
+        }
+
+        Map<String, int[]> crossProjectFiles = new TreeMap<>();
+        this.base.addCrossProjectFiles(crossProjectFiles, 0);
+        this.head.addCrossProjectFiles(crossProjectFiles, 1);
+        out.write("Cross-project dependencies:\n");
+        boolean any = false;
+        for (Map.Entry<String, int[]> dependency : crossProjectFiles.entrySet()) {
+            int[] files = dependency.getValue();
+            if ((files[0] == 0) != (files[1] == 0)) {
+                int count = Math.max(files[0], files[1]);
+                out.write("  " + (files[0] == 0 ? "+ " : "- ") + dependency.getKey() + " (" + count + (count == 1 ? " file)\n" : " files)\n"));
+                any = true;
+            }
+        }
+        if (!any) {
+            out.write("  (none)\n");
+        }
+
+        Map<String, long[]> projectLines = new TreeMap<>();
+        this.base.addProjectLines(projectLines, 0);
+        this.head.addProjectLines(projectLines, 1);
+        out.write("Source lines per project:\n");
+        any = false;
+        for (Map.Entry<String, long[]> project : projectLines.entrySet()) {
+            long[] lines = project.getValue();
+            if (lines[0] != lines[1] || lines[2] != lines[3]) {
+                out.write("  " + project.getKey() + ": " + change(lines[0], lines[1]) + ", bonus " + change(lines[2], lines[3]) + "\n");
+                any = true;
+            }
+        }
+        if (!any) {
+            out.write("  (none)\n");
+        }
+        out.flush();
+    }
+
+    private void writeChange(AnalysisSnapshot base, int i, AnalysisSnapshot head, int j, Writer out) throws IOException {
+        List<String> changes = new ArrayList<>();
+        if (base.getLineNumber(i) != head.getLineNumber(j)) {
+            changes.add("source lines " + change(base.getLineNumber(i), head.getLineNumber(j)));
+        }
+        if (base.getLineNumberBonus(i) != head.getLineNumberBonus(j)) {
+            changes.add("bonus " + change(base.getLineNumberBonus(i), head.getLineNumberBonus(j)));
+        }
+        if (!base.sameDependencies(i, head, j)) {
+            List<String> baseDependencies = base.getDependencies(i);
+            List<String> headDependencies = head.getDependencies(j);
+            List<String> added = new ArrayList<>(headDependencies);
+            added.removeAll(baseDependencies);
+            List<String> removed = new ArrayList<>(baseDependencies);
+            removed.removeAll(headDependencies);
+            changes.add("dependencies" + (added.isEmpty() ? "" : " +" + added) + (removed.isEmpty() ? "" : " -" + removed));
+        }
+        if (!changes.isEmpty()) {
+            out.write("  ~ " + head.getFileName(j) + ": " + String.join(", ", changes) + "\n");
+            changedFiles++;
+        }
+    }
+
+    private static String change(long before, long after) {
+        return before + " -> " + after + " (" + (after >= before ? "+" : "") + (after - before) + ")";
+    }
+
+    /**
+     * The totals of one snapshot by project index: source lines, bonus lines and the files of every project
+     * depending on every other project.
+     */
+    private static final class Side {
+        private final AnalysisSnapshot snapshot;
+        private final int projectCount;
+        private final long[] lines;
+        private final long[] bonusLines;
+        private final int[] dependentFiles;
+
+        Side(AnalysisSnapshot snapshot) {
+            this.snapshot = snapshot;
+            this.projectCount = snapshot.getProjectNames().size();
+            this.lines = new long[projectCount];
+            this.bonusLines = new long[projectCount];
+            this.dependentFiles = new int[projectCount * projectCount];
+        }
+
+        void count(int file) {
+            int project = snapshot.getProjectIndex(file);
+            if (project < 0) {
+                return;
+            }
+            lines[project] += snapshot.getLineNumber(file);
+            bonusLines[project] += snapshot.getLineNumberBonus(file);
+            for (int w = 0; w < snapshot.getWords(); w++) {
+                long bits = snapshot.getDependencyBits(file, w);
+                while (bits != 0) {
+                    dependentFiles[project * projectCount + w * 64 + Long.numberOfTrailingZeros(bits)]++;
+                    bits &= bits - 1;
+                }
+            }
+        }
+
+        /**
+         * Adds the file counts of the dependencies between different projects, keyed like {@code fig -> spark},
+         * to element {@code side} of the values.
+         */
+        void addCrossProjectFiles(Map<String, int[]> crossProjectFiles, int side) {
+            List<String> projectNames = snapshot.getProjectNames();
+            for (int project = 0; project < projectCount; project++) {
+                for (int dependency = 0; dependency < projectCount; dependency++) {
+                    int files = dependentFiles[project * projectCount + dependency];
+                    if (files > 0 && dependency != project) {
+                        String key = projectNames.get(project) + " -> " + projectNames.get(dependency);
+                        crossProjectFiles.computeIfAbsent(key, k -> new int[2])[side] = files;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Sets elements {@code side} and {@code 2 + side} of the values to the source and bonus lines of every
+         * project with files.
+         */
+        void addProjectLines(Map<String, long[]> projectLines, int side) {
+            for (int project = 0; project < projectCount; project++) {
+                long[] total = projectLines.computeIfAbsent(snapshot.getProjectNames().get(project), p -> new long[4]);
+                total[side] = lines[project];
+                total[2 + side] = bonusLines[project];
+            }
+        }
+    }
+}
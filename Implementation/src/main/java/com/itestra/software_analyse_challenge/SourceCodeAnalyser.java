@@ -2,32 +2,15 @@ package com.itestra.software_analyse_challenge;
 
 import org.apache.commons.cli.*;
 
-import java.io.File;
+import java.io.*;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 public class SourceCodeAnalyser {
-    private static String getRelativePath(File baseDir, File file) {
-        Path basePath = baseDir.toPath();
-        Path filePath = file.toPath();
-        return basePath.relativize(filePath).toString().replace(File.separatorChar, '/');
-    }
-
-    private static List<File> findAllJavaFiles(File directory) {
-        List<File> javaFiles = new ArrayList<>();
-        File[] files = directory.listFiles();
-        if (files == null) return javaFiles;
-        for (File file : files) {
-            if (file.isDirectory()) {
-                javaFiles.addAll(findAllJavaFiles(file));
-            } else if (file.isFile() && file.getName().endsWith(".java")) {
-                javaFiles.add(file);
-            }
-        }
-        return javaFiles;
-    }
-
     /**
      * Your implementation
      *
@@ -35,24 +18,109 @@ public class SourceCodeAnalyser {
      * @return mapping from filename -> {@link Output} object.
      */
     public static Map<String, Output> analyse(Input input) {
-        Map<String, Output> result = new HashMap<>();
-        File inputDir = input.getInputDirectory();
-        List<File> javaFiles = findAllJavaFiles(inputDir);
-        for (File file : javaFiles) {
-            String fileName = getRelativePath(inputDir, file);
-            // Task 1
-            int lineNumber = LineNumberCounter.computeLineNumber(file);
-            // Task 2
-            List<String> dependencies = DependencyAnalyser.computeDependencies(file);
-            // Task 3
-            int lineNumberBonus = LineNumberCounter.computeLineNumberBonus(file);
-            Output output = new Output(lineNumber, dependencies);
-            if (lineNumberBonus != lineNumber) {
-                output.lineNumberBonus(lineNumberBonus);
+        return analyseResults(input).asMap();
+    }
+
+    /**
+     * Like {@link #analyse(Input)}, but hands every file to {@code writer} in file name order.
+     */
+    public static void analyse(Input input, OutputWriter writer) throws IOException {
+        analyse(input, writer, RunMetrics.DISABLED);
+    }
+
+    /**
+     * Like {@link #analyse(Input, OutputWriter)}, measuring every phase in {@code metrics}.
+     */
+    @SuppressWarnings("try")
+    public static void analyse(Input input, OutputWriter writer, RunMetrics metrics) throws IOException {
+        AnalysisResultStore results = analyseResults(input, metrics);
+        try (RunMetrics.Phase phase = metrics.phase("output")) {
+            for (int file = 0; file < results.size(); file++) {
+                writer.write(results.getFileName(file), results.getOutput(file));
             }
-            result.put(fileName, output);
+            writer.finish();
         }
-        return result;
+    }
+
+    /**
+     * Analyses all files and keeps the result in columnar form, see {@link AnalysisResultStore}.
+     */
+    public static AnalysisResultStore analyseResults(Input input) {
+        return analyseResults(input, RunMetrics.DISABLED);
+    }
+
+    @SuppressWarnings("try")
+    public static AnalysisResultStore analyseResults(Input input, RunMetrics metrics) {
+        Map<String, FileAnalysis> analyses = analyseFiles(input, metrics);
+
+        // Task 2: transitive dependencies across all files
+        ImportGraph graph;
+        try (RunMetrics.Phase phase = metrics.phase("graph")) {
+            graph = ImportGraph.build(analyses, input.isResolveImports() ? input.getProjects() : null);
+        }
+        try (RunMetrics.Phase phase = metrics.phase("store")) {
+            return AnalysisResultStore.build(analyses, graph, input.getProjects());
+        }
+    }
+
+    static Map<String, FileAnalysis> analyseFiles(Input input) {
+        return analyseFiles(input, RunMetrics.DISABLED);
+    }
+
+    /**
+     * Walks the input and analyses every file. In {@code metrics}, the phase {@code analyse} covers all of it
+     * and {@code walk} only the time the walk itself takes, without handing files to the executor.
+     */
+    static Map<String, FileAnalysis> analyseFiles(Input input, RunMetrics metrics) {
+        Map<String, FileAnalysis> analyses = new ConcurrentHashMap<>();
+        analyseFiles(input, metrics, analyses::put);
+        return analyses;
+    }
+
+    /**
+     * Like {@link #analyseFiles(Input, RunMetrics)}, handing every result to {@code results}, possibly from
+     * several threads at once.
+     */
+    static void analyseFiles(Input input, RunMetrics metrics, BiConsumer<String, FileAnalysis> results) {
+        Path inputDir = input.getInputDirectory().toPath();
+        ProjectRegistry projects = input.getProjects();
+        AnalysisCache cache = input.getCacheFile() == null ? null : AnalysisCache.load(input.getCacheFile(), projects, input.getEncoding());
+        ContentDeduplicator deduplicator = input.isDedup() ? new ContentDeduplicator() : null;
+        // the walker keeps archives open until all their entries are analysed
+        try (RunMetrics.Phase analysePhase = metrics.phase("analyse");
+             JavaFileWalker walker = new JavaFileWalker(input.getExcludes());
+             AnalysisExecutor executor = new AnalysisExecutor(input.getThreads())) {
+            try (RunMetrics.Phase walkPhase = metrics.phase("walk")) {
+                walker.walk(inputDir, file -> {
+                    String fileName = walker.getFileName(inputDir, file);
+                    if (!input.isInShard(fileName)) {
+                        return;
+                    }
+                    walkPhase.pause();
+                    // Tasks 1-3 in a single read of the file
+                    executor.submit(() -> results.accept(fileName, metrics.analyse(analysePhase, fileName, file,
+                            () -> analyse(fileName, file, input, cache, deduplicator))));
+                    walkPhase.resume();
+                });
+            }
+            executor.awaitCompletion();
+        }
+        if (cache != null) {
+            cache.save();
+        }
+        if (deduplicator != null) {
+            deduplicator.printSummary(System.err, ContentDeduplicator.DEFAULT_SUMMARY_CLUSTERS);
+        }
+    }
+
+    private static FileAnalysis analyse(String fileName, Path file, Input input, AnalysisCache cache, ContentDeduplicator deduplicator) {
+        if (deduplicator == null) {
+            return cache == null ? FileAnalyser.analyse(file, input.getProjects(), input.getEncoding()) : cache.analyse(fileName, file);
+        }
+        // the cache is asked first, so unchanged duplicates are not even hashed
+        Supplier<FileAnalysis> analyser = () -> deduplicator.analyse(fileName, file,
+                () -> FileAnalyser.analyse(file, input.getProjects(), input.getEncoding()));
+        return cache == null ? analyser.get() : cache.analyse(fileName, file, analyser);
     }
 
     /**
@@ -67,11 +135,153 @@ public class SourceCodeAnalyser {
             .required(false)
             .build();
 
+    public static final Option THREADS = Option.builder("t")
+            .longOpt("threads")
+            .hasArg(true)
+            .desc("number of threads analysing files in parallel (default 1)")
+            .required(false)
+            .build();
+
+    public static final Option EXCLUDE = Option.builder("x")
+            .longOpt("exclude")
+            .hasArgs()
+            .desc("glob of files or directories to skip, e.g. target/ or .git/ (repeatable)")
+            .required(false)
+            .build();
+
+    public static final Option CACHE = Option.builder("c")
+            .longOpt("cache")
+            .hasArg(true)
+            .desc("file storing results between runs; unchanged files are not analysed again")
+            .required(false)
+            .build();
+
+    public static final Option PROJECTS_FILE = Option.builder("p")
+            .longOpt("projects")
+            .hasArg(true)
+            .desc("file of <package prefix>=<project> lines replacing the default projects")
+            .required(false)
+            .build();
+
+    public static final Option PROJECT = Option.builder("P")
+            .longOpt("project")
+            .hasArgs()
+            .desc("<package prefix>=<project> mapping, added to --projects (repeatable)")
+            .required(false)
+            .build();
+
+    public static final Option FORMAT = Option.builder("f")
+            .longOpt("format")
+            .hasArg(true)
+            .desc("output format: table (default), csv, json or ndjson")
+            .required(false)
+            .build();
+
+    public static final Option ENCODING = Option.builder("e")
+            .longOpt("encoding")
+            .hasArg(true)
+            .desc("charset of the source files without byte order mark (default UTF-8)")
+            .required(false)
+            .build();
+
+    public static final Option DEDUP = Option.builder("d")
+            .longOpt("dedup")
+            .hasArg(false)
+            .desc("analyse byte-identical files once and print a summary of the duplicates")
+            .required(false)
+            .build();
+
+    public static final Option RESOLVE_IMPORTS = Option.builder("r")
+            .longOpt("resolve-imports")
+            .hasArg(false)
+            .desc("also follow wildcard and static imports when computing dependencies")
+            .required(false)
+            .build();
+
+    public static final Option DEPENDENTS = Option.builder()
+            .longOpt("dependents")
+            .hasArg(true)
+            .argName("file|project")
+            .desc("print the files depending on a file (ending in .java) or a project directly or through any chain of imports, instead of the result")
+            .required(false)
+            .build();
+
+    public static final Option SNAPSHOT = Option.builder()
+            .longOpt("snapshot")
+            .hasArg(true)
+            .desc("write the result as a binary snapshot to <file> instead of printing it, e.g. as the base of a later --diff")
+            .required(false)
+            .build();
+
+    public static final Option DIFF = Option.builder()
+            .longOpt("diff")
+            .hasArg(true)
+            .desc("print the changed files, new or removed cross-project dependencies and source line deltas per project against the snapshot <file>")
+            .required(false)
+            .build();
+
+    public static final Option WATCH = Option.builder("w")
+            .longOpt("watch")
+            .hasArg(false)
+            .desc("keep running and print the rows of changed files whenever sources change")
+            .required(false)
+            .build();
+
+    public static final Option SERVE = Option.builder("s")
+            .longOpt("serve")
+            .hasArg(true)
+            .desc("keep the result up to date and answer queries on http://127.0.0.1:<port>")
+            .required(false)
+            .build();
+
+    public static final Option CONNECT = Option.builder()
+            .longOpt("connect")
+            .hasArg(true)
+            .desc("print the result of the server running on <port> instead of analysing")
+            .required(false)
+            .build();
+
+    public static final Option GIT = Option.builder("g")
+            .longOpt("git")
+            .hasArg(true)
+            .desc("analyse the commits <from>..<to> (or one revision) of the repository containing the input directory, without checkout, printing the rows each commit changed")
+            .required(false)
+            .build();
+
+    public static final Option METRICS = Option.builder("m")
+            .longOpt("metrics")
+            .hasArg(true)
+            .desc("write wall and CPU time per phase, throughput and per-file latencies of the run as JSON to <file>")
+            .required(false)
+            .build();
+
+    public static final Option SPILL = Option.builder()
+            .longOpt("spill")
+            .hasArg(true)
+            .desc("keep at most <budget> bytes of results on the heap (e.g. 512m) and sort them through temporary files")
+            .required(false)
+            .build();
+
+    public static final Option SHARDS = Option.builder()
+            .longOpt("shards")
+            .hasArg(true)
+            .desc("split the files across <n> worker processes and merge their results")
+            .required(false)
+            .build();
+
+    public static final Option SHARD = Option.builder()
+            .longOpt("shard")
+            .numberOfArgs(2)
+            .argName("k/n> <file")
+            .desc("used by --shards: analyse only shard k of n and write the partial result to <file>")
+            .required(false)
+            .build();
+
     public static final String DEFAULT_INPUT_DIR = String.join(File.separator , Arrays.asList("..", "CodeExamples", "src", "main", "java"));
 
-    private static Input parseInput(String[] args) {
+    static Input parseInput(String[] args) {
         Options options = new Options();
-        Collections.singletonList(INPUT_DIR).forEach(options::addOption);
+        Arrays.asList(INPUT_DIR, THREADS, EXCLUDE, CACHE, PROJECTS_FILE, PROJECT, FORMAT, ENCODING, DEDUP, RESOLVE_IMPORTS, DEPENDENTS, SNAPSHOT, DIFF, WATCH, SERVE, CONNECT, GIT, METRICS, SPILL, SHARDS, SHARD).forEach(options::addOption);
         CommandLineParser parser = new DefaultParser();
         HelpFormatter formatter = new HelpFormatter();
         try {
@@ -83,25 +293,154 @@ public class SourceCodeAnalyser {
         }
     }
 
-    private static void printOutput(Map<String, Output> outputMap) {
-        System.out.println("Result: ");
-        List<OutputLine> outputLines =
-                outputMap.entrySet().stream()
-                        .map(e -> new OutputLine(e.getKey(), e.getValue().getLineNumber(), e.getValue().getLineNumberBonus(), e.getValue().getDependencies()))
-                        .sorted(Comparator.comparing(OutputLine::getFileName))
-                        .collect(Collectors.toList());
-        outputLines.add(0, new OutputLine("File", "Source Lines", "Source Lines without Getters and Block Comments", "Dependencies"));
-        int maxDirectoryName = outputLines.stream().map(OutputLine::getFileName).mapToInt(String::length).max().orElse(100);
-        int maxLineNumber = outputLines.stream().map(OutputLine::getLineNumber).mapToInt(String::length).max().orElse(100);
-        int maxLineNumberWithoutGetterAndSetter = outputLines.stream().map(OutputLine::getLineNumberWithoutGetterSetter).mapToInt(String::length).max().orElse(100);
-        int maxDependencies = outputLines.stream().map(OutputLine::getDependencies).mapToInt(String::length).max().orElse(100);
-        String lineFormat = "| %"+ maxDirectoryName+"s | %"+maxLineNumber+"s | %"+maxLineNumberWithoutGetterAndSetter+"s | %"+ maxDependencies+"s |%n";
-        outputLines.forEach(line -> System.out.printf(lineFormat, line.getFileName(), line.getLineNumber(), line.getLineNumberWithoutGetterSetter(), line.getDependencies()));
+    /**
+     * Prints the names of the files depending on the file or project {@link Input#getDependents()}, one per line.
+     */
+    @SuppressWarnings("try")
+    static void printDependents(Input input, Writer out, RunMetrics metrics) throws IOException {
+        AnalysisResultStore results = analyseResults(input, metrics);
+        List<String> dependents;
+        try (RunMetrics.Phase phase = metrics.phase("dependents")) {
+            dependents = results.getReverseIndex().getDependents(input.getDependents());
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return;
+        }
+        try (RunMetrics.Phase phase = metrics.phase("output")) {
+            for (String fileName : dependents) {
+                out.write(fileName);
+                out.write('\n');
+            }
+            out.flush();
+        }
+    }
+
+    /**
+     * Writes the snapshot of the result to {@link Input#getSnapshotFile()} and prints its difference to
+     * {@link Input#getDiffBase()}, whichever is given.
+     */
+    @SuppressWarnings("try")
+    static void snapshot(Input input, Writer out, RunMetrics metrics) throws IOException {
+        AnalysisResultStore results = analyseResults(input, metrics);
+        AnalysisSnapshot head;
+        try (RunMetrics.Phase phase = metrics.phase("snapshot")) {
+            head = AnalysisSnapshot.of(results);
+            if (input.getSnapshotFile() != null) {
+                head.write(input.getSnapshotFile());
+            }
+        }
+        if (input.getDiffBase() != null) {
+            try (RunMetrics.Phase phase = metrics.phase("diff")) {
+                SnapshotDiff.write(AnalysisSnapshot.open(input.getDiffBase()), head, out);
+            }
+        }
+    }
+
+    static void printOutput(Map<String, Output> outputMap) {
+        try {
+            OutputWriter writer = OutputFormat.TABLE.open(standardOutput());
+            for (String fileName : new TreeSet<>(outputMap.keySet())) {
+                writer.write(fileName, outputMap.get(fileName));
+            }
+            writer.finish();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static Writer standardOutput() {
+        return new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16);
+    }
+
+    private static void watch(Input input) throws IOException, InterruptedException {
+        Writer out = standardOutput();
+        new AnalysisWatcher(input, analyseFiles(input), (results, changed, removed) -> {
+            try {
+                OutputWriter writer = input.getFormat().open(out);
+                for (String fileName : changed) {
+                    writer.write(fileName, results.getOutput(results.indexOf(fileName)));
+                }
+                for (String fileName : removed) {
+                    writer.remove(fileName);
+                }
+                writer.finish();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }).run();
+    }
+
+    private static void serve(Input input) throws IOException, InterruptedException {
+        AnalysisServer server = new AnalysisServer(input.getServePort());
+        server.start();
+        System.err.println("Serving on http://127.0.0.1:" + server.getPort());
+        try {
+            new AnalysisWatcher(input, analyseFiles(input), (results, changed, removed) -> server.update(results)).run();
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static void analyseHistory(Input input) throws IOException {
+        Writer out = standardOutput();
+        int commits;
+        int blobs;
+        try (GitHistoryAnalyser analyser = new GitHistoryAnalyser(input)) {
+            int[] count = new int[1];
+            analyser.run(input.getGitRange(), (commit, results, changed, removed) -> {
+                OutputWriter writer = input.getFormat().open(out);
+                writer.commit(commit);
+                for (String fileName : changed) {
+                    writer.write(fileName, results.getOutput(results.indexOf(fileName)));
+                }
+                for (String fileName : removed) {
+                    writer.remove(fileName);
+                }
+                writer.finish();
+                count[0]++;
+            });
+            commits = count[0];
+            blobs = analyser.getBlobCount();
+        }
+        System.err.println("Analysed " + blobs + " distinct files for " + commits + " commits");
     }
 
     public static void main(String[] args) {
         Input input = parseInput(args);
-        Map<String, Output> outputMap = analyse(input);
-        printOutput(outputMap);
+        try {
+            if (input.getConnectPort() >= 0) {
+                AnalysisClient.fetch(input.getConnectPort(), "/result?format=" + input.getFormat().getName(), System.out);
+            } else if (input.getShardFile() != null) {
+                ShardedAnalyser.analyseShard(input);
+            } else if (input.getGitRange() != null) {
+                analyseHistory(input);
+            } else if (input.getServePort() >= 0) {
+                serve(input);
+            } else if (input.isWatch()) {
+                watch(input);
+            } else {
+                RunMetrics metrics = input.getMetricsFile() == null ? RunMetrics.DISABLED : new RunMetrics(RunMetrics.DEFAULT_SLOWEST_FILES);
+                if (input.getShardCount() > 0) {
+                    ShardedAnalyser.analyse(input, standardOutput(), metrics);
+                } else if (input.getSpillBudget() > 0) {
+                    SpillingAnalyser.analyse(input, standardOutput(), metrics);
+                } else if (input.getDependents() != null) {
+                    printDependents(input, standardOutput(), metrics);
+                } else if (input.getSnapshotFile() != null || input.getDiffBase() != null) {
+                    snapshot(input, standardOutput(), metrics);
+                } else {
+                    analyse(input, input.getFormat().open(standardOutput()), metrics);
+                }
+                if (metrics.isEnabled()) {
+                    try (Writer out = Files.newBufferedWriter(input.getMetricsFile())) {
+                        metrics.write(out);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 }
@@ -0,0 +1,200 @@
+package com.itestra.software_analyse_challenge;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Splits the content of a source file into lines like {@link java.io.BufferedReader#readLine()}, decoded
+ * with the charset of the tree.
+ * <p>
+ * A byte order mark overrides the charset and is not part of the first line. Files that are pure ASCII in
+ * an ASCII-compatible charset, which most Java sources are, and all ISO-8859-1 files are turned into
+ * strings directly, as Latin-1 strings are stored; only other content goes through a {@link CharsetDecoder}.
+ * Malformed input is replaced like {@link java.io.InputStreamReader} does. The byte and char buffers and
+ * the decoders are kept per thread.
+ */
+public class SourceDecoder {
+
+    public static final Charset DEFAULT_CHARSET = StandardCharsets.UTF_8;
+
+    /**
+     * Buffers that grew beyond this for one large file are not kept for the next.
+     */
+    static final int RETAINED_BUFFER_SIZE = 1 << 20;
+
+    private static final ThreadLocal<SourceDecoder> DECODERS = ThreadLocal.withInitial(SourceDecoder::new);
+    private static final Map<Charset, Boolean> ASCII_COMPATIBLE = new ConcurrentHashMap<>();
+
+    private final Map<Charset, CharsetDecoder> decoders = new HashMap<>();
+    private byte[] bytes = new byte[1 << 16];
+    private char[] chars = new char[0];
+
+    private SourceDecoder() {
+    }
+
+    /**
+     * Reads {@code in} to its end and hands every line, without line terminator, to {@code lines}.
+     */
+    public static void readLines(InputStream in, Charset charset, Consumer<String> lines) throws IOException {
+        SourceDecoder decoder = DECODERS.get();
+        decoder.decode(decoder.readFully(in), charset, true, line -> {
+            lines.accept(line);
+            return true;
+        });
+    }
+
+    /**
+     * Like {@link #readLines(InputStream, Charset, Consumer)} for the remaining bytes of {@code content}, which
+     * need not be at the start of a file, see {@code fileStart}. Stops as soon as {@code lines} returns false.
+     */
+    static void readLines(ByteBuffer content, Charset charset, boolean fileStart, Predicate<String> lines) {
+        SourceDecoder decoder = DECODERS.get();
+        int length = content.remaining();
+        if (decoder.bytes.length < length) {
+            decoder.bytes = new byte[length];
+        }
+        content.get(decoder.bytes, 0, length);
+        decoder.decode(length, charset, fileStart, lines);
+    }
+
+    /**
+     * The charset selected by a byte order mark at the start of {@code bytes[0, length)}, or null if there is none.
+     */
+    static Charset byteOrderMarkCharset(byte[] bytes, int length) {
+        if (length >= 3 && bytes[0] == (byte) 0xEF && bytes[1] == (byte) 0xBB && bytes[2] == (byte) 0xBF) {
+            return StandardCharsets.UTF_8;
+        } else if (length >= 2 && bytes[0] == (byte) 0xFE && bytes[1] == (byte) 0xFF) {
+            return StandardCharsets.UTF_16BE;
+        } else if (length >= 2 && bytes[0] == (byte) 0xFF && bytes[1] == (byte) 0xFE) {
+            return StandardCharsets.UTF_16LE;
+        }
+        return null;
+    }
+
+    private void decode(int length, Charset charset, boolean fileStart, Predicate<String> lines) {
+        try {
+            int start = 0;
+            Charset marked = fileStart ? byteOrderMarkCharset(bytes, length) : null;
+            if (marked != null) {
+                charset = marked;
+                start = marked.equals(StandardCharsets.UTF_8) ? 3 : 2;
+            }
+            if (charset.equals(StandardCharsets.ISO_8859_1) || isAsciiCompatible(charset) && isAscii(bytes, start, length)) {
+                splitLatin1(start, length, lines);
+            } else {
+                splitChars(decode(charset, start, length), lines);
+            }
+        } finally {
+            if (bytes.length > RETAINED_BUFFER_SIZE) {
+                bytes = new byte[1 << 16];
+            }
+            if (chars.length > RETAINED_BUFFER_SIZE) {
+                chars = new char[0];
+            }
+        }
+    }
+
+    private int readFully(InputStream in) throws IOException {
+        int length = 0;
+        while (true) {
+            if (length == bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            int read = in.read(bytes, length, bytes.length - length);
+            if (read < 0) {
+                return length;
+            }
+            length += read;
+        }
+    }
+
+    /**
+     * Whether no byte of {@code bytes[start, end)} has the high bit set. Without an early exit, so the loop
+     * is vectorised.
+     */
+    static boolean isAscii(byte[] bytes, int start, int end) {
+        int bits = 0;
+        for (int i = start; i < end; i++) {
+            bits |= bytes[i];
+        }
+        return bits >= 0;
+    }
+
+    /**
+     * Whether {@code charset} encodes ASCII as single bytes, so that bytes below {@code 0x80} are always ASCII.
+     */
+    static boolean isAsciiCompatible(Charset charset) {
+        return ASCII_COMPATIBLE.computeIfAbsent(charset, c -> {
+            byte[] ascii = new byte[128];
+            for (int i = 0; i < ascii.length; i++) {
+                ascii[i] = (byte) i;
+            }
+            return c.canEncode() && Arrays.equals(new String(ascii, StandardCharsets.US_ASCII).getBytes(c), ascii);
+        });
+    }
+
+    private void splitLatin1(int start, int end, Predicate<String> lines) {
+        int lineStart = start;
+        for (int i = start; i < end; i++) {
+            byte b = bytes[i];
+            if (b == '\n' || b == '\r') {
+                if (!lines.test(new String(bytes, lineStart, i - lineStart, StandardCharsets.ISO_8859_1))) {
+                    return;
+                }
+                if (b == '\r' && i + 1 < end && bytes[i + 1] == '\n') {
+                    i++;
+                }
+                lineStart = i + 1;
+            }
+        }
+        if (lineStart < end) {
+            lines.test(new String(bytes, lineStart, end - lineStart, StandardCharsets.ISO_8859_1));
+        }
+    }
+
+    private int decode(Charset charset, int start, int end) {
+        CharsetDecoder decoder = decoders.computeIfAbsent(charset, c -> c.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE));
+        int capacity = (int) Math.ceil((end - start) * (double) decoder.maxCharsPerByte()) + 1;
+        if (chars.length < capacity) {
+            chars = new char[capacity];
+        }
+        CharBuffer out = CharBuffer.wrap(chars);
+        decoder.reset();
+        decoder.decode(ByteBuffer.wrap(bytes, start, end - start), out, true);
+        decoder.flush(out);
+        return out.position();
+    }
+
+    private void splitChars(int end, Predicate<String> lines) {
+        int lineStart = 0;
+        for (int i = 0; i < end; i++) {
+            char c = chars[i];
+            if (c == '\n' || c == '\r') {
+                if (!lines.test(new String(chars, lineStart, i - lineStart))) {
+                    return;
+                }
+                if (c == '\r' && i + 1 < end && chars[i + 1] == '\n') {
+                    i++;
+                }
+                lineStart = i + 1;
+            }
+        }
+        if (lineStart < end) {
+            lines.test(new String(chars, lineStart, end - lineStart));
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.itestra.software_analyse_challenge;
+
+/**
+ * One line of a source file as classified by {@link JavaLexer}. Instances are reused for the next line,
+ * so analysers must not keep references to them or to {@link #getCode()}.
+ */
+public class SourceLine {
+
+    public enum Kind {
+        /**
+         * Only whitespace.
+         */
+        BLANK,
+        /**
+         * Only comments and whitespace.
+         */
+        COMMENT,
+        /**
+         * At least one token outside of comments.
+         */
+        CODE
+    }
+
+    private final Window code = new Window();
+    private String source;
+    private int start;
+    private int end;
+    private String text;
+    private Kind kind;
+    private boolean textBlockContent;
+
+    void setText(String source, int start, int end) {
+        this.source = source;
+        this.start = start;
+        this.end = end;
+        this.text = null;
+        this.textBlockContent = false;
+    }
+
+    void setTextBlockContent(boolean textBlockContent) {
+        this.textBlockContent = textBlockContent;
+    }
+
+    void setCode(Kind kind, CharSequence source, int start, int end) {
+        this.kind = kind;
+        code.set(source, start, end);
+    }
+
+    /**
+     * The trimmed line as it appears in the file.
+     */
+    public String getText() {
+        if (text == null) {
+            text = source.substring(start, end);
+        }
+        return text;
+    }
+
+    public boolean isTextEmpty() {
+        return start == end;
+    }
+
+    public boolean textStartsWith(String prefix) {
+        return end - start >= prefix.length() && source.startsWith(prefix, start);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Whether the whole line is inside a text block, so its code is the content of a string rather than
+     * tokens. The lines opening and closing the text block are not.
+     */
+    public boolean isTextBlockContent() {
+        return textBlockContent;
+    }
+
+    /**
+     * The trimmed line without comments; empty unless {@link #getKind()} is {@link Kind#CODE}.
+     */
+    public CharSequence getCode() {
+        return code;
+    }
+
+    /**
+     * The index of the first {@code c} in {@link #getCode()} from {@code from} on, or -1.
+     */
+    public int codeIndexOf(char c, int from) {
+        return code.indexOf(c, from);
+    }
+
+    public boolean codeStartsWith(String prefix) {
+        int length = prefix.length();
+        if (code.length() < length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (code.charAt(i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A reusable view on a range of a line or of the lexer's code buffer.
+     */
+    private static final class Window implements CharSequence {
+        private CharSequence source;
+        private int start;
+        private int length;
+
+        void set(CharSequence source, int start, int end) {
+            this.source = source;
+            this.start = start;
+            this.length = end - start;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return source.charAt(start + index);
+        }
+
+        int indexOf(char c, int from) {
+            if (source instanceof String) {
+                // vectorized for the common case of a line without comments
+                int index = ((String) source).indexOf(c, start + from, start + length);
+                return index < 0 ? -1 : index - start;
+            }
+            for (int i = from; i < length; i++) {
+                if (source.charAt(start + i) == c) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            return source.subSequence(start + from, start + to);
+        }
+
+        @Override
+        public String toString() {
+            return source.subSequence(start, start + length).toString();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.itestra.software_analyse_challenge;
+
+public class SourceLineCounter implements LineAnalyser {
+    private int count;
+
+    @Override
+    public void analyseLine(SourceLine line) {
+        // Task 1 only ignores line comments, so this looks at the text rather than the lexer's verdict
+        if (line.isTextEmpty() || line.textStartsWith("//")) {
+            return;
+        }
+        count++;
+    }
+
+    public int getCount() {
+        return count;
+    }
+}
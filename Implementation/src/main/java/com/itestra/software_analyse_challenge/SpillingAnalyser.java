@@ -0,0 +1,608 @@
+package com.itestra.software_analyse_challenge;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Analyses trees whose results do not fit on the heap, for {@code --spill}.
+ * <p>
+ * File results are collected until their estimated size reaches the budget, then sorted by file name and
+ * written to a run file in the binary form of {@link FileAnalysis#write(DataOutput)}. The runs are merged
+ * k-way three times: to number the files and their declared types, to resolve the imports into the same
+ * compressed graph {@link ImportGraph} uses, and to stream the rows to the output. Between the passes
+ * only the graph is on the heap: a few ints per file and import and the project bits, while names,
+ * imports and counts stay on disk. Declared types are looked up by a 64-bit hash of their name; the first pass
+ * also writes the names to a file, and every hash match is confirmed against the name there, so imports
+ * resolve exactly like in {@link ImportGraph}, also when hashes collide.
+ * <p>
+ * The table format gets the widths of its columns from the first passes, so it does not have to keep
+ * its cells either.
+ */
+public class SpillingAnalyser implements Closeable {
+
+    /**
+     * At most this many runs are merged at once; more runs are first merged into longer ones.
+     */
+    static final int MAX_FAN_IN = 64;
+
+    private static final int STREAM_BUFFER = 1 << 16;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final Comparator<Record> BY_FILE_NAME = Comparator.comparing((Record r) -> r.fileName);
+
+    private final long budget;
+    private final long typeHashMask;
+    private final Path directory;
+    private final List<Path> runs = new ArrayList<>();
+    private List<Record> buffer = new ArrayList<>();
+    private long buffered;
+
+    public SpillingAnalyser(long budget) throws IOException {
+        this(budget, -1L);
+    }
+
+    /**
+     * Keeps only the bits of {@code typeHashMask} of the type name hashes, so that tests can make them collide.
+     */
+    SpillingAnalyser(long budget, long typeHashMask) throws IOException {
+        this.budget = budget;
+        this.typeHashMask = typeHashMask;
+        this.directory = Files.createTempDirectory("source-code-analyser");
+    }
+
+    /**
+     * Analyses the input and writes every file in file name order, like
+     * {@link SourceCodeAnalyser#analyse(Input, OutputWriter)}.
+     */
+    public static void analyse(Input input, Writer out, RunMetrics metrics) throws IOException {
+        try (SpillingAnalyser analyser = new SpillingAnalyser(input.getSpillBudget())) {
+            analyser.analyseFiles(input, metrics);
+            analyser.write(input.getFormat(), out, metrics);
+        }
+    }
+
+    /**
+     * Analyses the files of the input and adds their results.
+     */
+    public void analyseFiles(Input input, RunMetrics metrics) throws IOException {
+        try {
+            SourceCodeAnalyser.analyseFiles(input, metrics, this::add);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (IllegalStateException e) {
+            // a spill failed on a pool thread
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Adds the result of one file, spilling the buffered results if they exceed the budget. May be called
+     * from several threads.
+     */
+    public synchronized void add(String fileName, FileAnalysis analysis) {
+        buffer.add(new Record(fileName, analysis));
+        buffered += estimateSize(fileName, analysis);
+        if (buffered >= budget) {
+            try {
+                spill();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Approximate heap size of a buffered record: object headers, fields and the chars of all strings.
+     */
+    private static long estimateSize(String fileName, FileAnalysis analysis) {
+        long size = 96 + stringSize(fileName) + stringSize(analysis.getPackageName());
+        for (String imported : analysis.getImports()) {
+            size += 8 + stringSize(imported);
+        }
+        for (String dependency : analysis.getDependencies()) {
+            size += 8 + stringSize(dependency);
+        }
+        for (String wildcard : analysis.getWildcardImports()) {
+            size += 8 + stringSize(wildcard);
+        }
+        for (String owner : analysis.getStaticImports()) {
+            size += 8 + stringSize(owner);
+        }
+        for (String typeName : analysis.getQualifiedTypes()) {
+            size += 8 + stringSize(typeName);
+        }
+        return size;
+    }
+
+    private static long stringSize(String value) {
+        return 40 + value.length();
+    }
+
+    private void spill() throws IOException {
+        buffer.sort(BY_FILE_NAME);
+        Path run = directory.resolve("run-" + runs.size());
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), STREAM_BUFFER))) {
+            for (Record record : buffer) {
+                record.write(out);
+            }
+        }
+        runs.add(run);
+        buffer = new ArrayList<>();
+        buffered = 0;
+    }
+
+    /**
+     * Builds the graph from the runs and writes all rows through {@code format}.
+     */
+    @SuppressWarnings("try")
+    public void write(OutputFormat format, Writer out, RunMetrics metrics) throws IOException {
+        // the last results stay in memory as one more run
+        buffer.sort(BY_FILE_NAME);
+        while (runs.size() > MAX_FAN_IN) {
+            mergeRuns();
+        }
+
+        int fileCount;
+        long[] reachable;
+        int words;
+        List<String> projectNames;
+        int[] widths = new int[TableOutputWriter.HEADER.length];
+        try (RunMetrics.Phase phase = metrics.phase("graph");
+             TypeNames typeNames = new TypeNames(directory.resolve("types"))) {
+            // pass 1: number files and declared types, collect the projects
+            TypeTable declaringFile = new TypeTable(typeHashMask);
+            SortedSet<String> projectSet = new TreeSet<>();
+            int[] count = new int[1];
+            merge(record -> {
+                String declaredType = ImportGraph.declaredType(record.fileName, record.analysis.getPackageName());
+                declaringFile.put(hash(declaredType), count[0]++);
+                typeNames.add(declaredType);
+                projectSet.addAll(record.analysis.getDependencies());
+                widths[0] = Math.max(widths[0], record.fileName.length());
+                widths[1] = Math.max(widths[1], Integer.toString(record.analysis.getLineNumber()).length());
+                widths[2] = Math.max(widths[2], Integer.toString(record.analysis.getLineNumberBonus()).length());
+            });
+            fileCount = count[0];
+            typeNames.finish();
+            projectNames = List.copyOf(projectSet);
+            Map<String, Integer> projectIds = new HashMap<>();
+            for (int i = 0; i < projectNames.size(); i++) {
+                projectIds.put(projectNames.get(i), i);
+            }
+            words = Math.max(1, (projectNames.size() + 63) / 64);
+
+            // pass 2: resolve the imports
+            int[] edgeStart = new int[fileCount + 1];
+            ImportGraph.Edges edges = new ImportGraph.Edges();
+            long[] directProjects = new long[Math.multiplyExact(fileCount, words)];
+            int projectWords = words;
+            count[0] = 0;
+            merge(record -> {
+                int id = count[0]++;
+                edgeStart[id] = edges.count();
+                for (String imported : record.analysis.getImports()) {
+                    int target = resolve(declaringFile, typeNames, imported);
+                    if (target >= 0 && target != id) {
+                        edges.add(target);
+                    }
+                }
+                for (String project : record.analysis.getDependencies()) {
+                    int projectId = projectIds.get(project);
+                    directProjects[id * projectWords + (projectId >>> 6)] |= 1L << projectId;
+                }
+            });
+            edgeStart[fileCount] = edges.count();
+            reachable = ImportGraph.closeOverComponents(fileCount, words, edgeStart, edges.toArray(), directProjects);
+        }
+        for (int id = 0; id < fileCount; id++) {
+            widths[3] = Math.max(widths[3], dependenciesWidth(reachable, id, words, projectNames));
+        }
+
+        // pass 3: write the rows
+        try (RunMetrics.Phase phase = metrics.phase("output")) {
+            OutputWriter writer = format == OutputFormat.TABLE ? new TableOutputWriter(out, widths) : format.open(out);
+            int projectWords = words;
+            int[] count = new int[1];
+            merge(record -> {
+                int id = count[0]++;
+                List<String> dependencies = new ArrayList<>();
+                for (int w = 0; w < projectWords; w++) {
+                    long bits = reachable[id * projectWords + w];
+                    while (bits != 0) {
+                        dependencies.add(projectNames.get(w * 64 + Long.numberOfTrailingZeros(bits)));
+                        bits &= bits - 1;
+                    }
+                }
+                try {
+                    writer.write(record.fileName, record.analysis.toOutput(dependencies));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.finish();
+        }
+    }
+
+    /**
+     * The length of the dependency cell of the table, e.g. {@code [fig, spark]}.
+     */
+    private static int dependenciesWidth(long[] reachable, int id, int words, List<String> projectNames) {
+        int width = 2;
+        int count = 0;
+        for (int w = 0; w < words; w++) {
+            long bits = reachable[id * words + w];
+            while (bits != 0) {
+                width += projectNames.get(w * 64 + Long.numberOfTrailingZeros(bits)).length();
+                count++;
+                bits &= bits - 1;
+            }
+        }
+        return width + Math.max(0, count - 1) * 2;
+    }
+
+    /**
+     * The file declaring {@code typeName} or its outermost enclosing type, like {@link ImportGraph} resolves
+     * imports, or -1.
+     */
+    private static int resolve(TypeTable declaringFile, TypeNames typeNames, String typeName) {
+        // hashes of the name and of every prefix ending before a dot, longest first
+        long hash = FNV_OFFSET;
+        long[] prefixes = new long[8];
+        int[] prefixEnds = new int[8];
+        int prefixCount = 0;
+        for (int i = 0; i < typeName.length(); i++) {
+            char c = typeName.charAt(i);
+            if (c == '.' && i > 0) {
+                if (prefixCount == prefixes.length) {
+                    prefixes = Arrays.copyOf(prefixes, prefixCount * 2);
+                    prefixEnds = Arrays.copyOf(prefixEnds, prefixCount * 2);
+                }
+                prefixes[prefixCount] = mix(hash);
+                prefixEnds[prefixCount++] = i;
+            }
+            hash = (hash ^ c) * FNV_PRIME;
+        }
+        int id = declaringFile.get(mix(hash), typeNames, typeName, typeName.length());
+        for (int i = prefixCount - 1; i >= 0 && id < 0; i--) {
+            id = declaringFile.get(prefixes[i], typeNames, typeName, prefixEnds[i]);
+        }
+        return id;
+    }
+
+    static long hash(String value) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        // finaliser of MurmurHash3, spreads the last characters over all bits
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ hash >>> 33;
+    }
+
+    /**
+     * Replaces the first {@link #MAX_FAN_IN} runs by their merge.
+     */
+    private void mergeRuns() throws IOException {
+        List<Path> group = new ArrayList<>(runs.subList(0, MAX_FAN_IN));
+        Path merged = directory.resolve("run-" + runs.size() + "-merged");
+        writeMerged(group, List.of(), merged);
+        for (Path run : group) {
+            Files.delete(run);
+        }
+        runs.subList(0, MAX_FAN_IN).clear();
+        runs.add(merged);
+    }
+
+    private static void writeMerged(List<Path> runFiles, List<Record> memoryRun, Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), STREAM_BUFFER))) {
+            merge(runFiles, memoryRun, record -> {
+                try {
+                    record.write(out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Adds a run written by {@link #writeRun(Path)}, e.g. in another process. It is deleted on {@link #close()}.
+     */
+    public void addRun(Path run) {
+        runs.add(run);
+    }
+
+    /**
+     * Writes all results added so far to {@code file} as one run sorted by file name.
+     */
+    public void writeRun(Path file) throws IOException {
+        buffer.sort(BY_FILE_NAME);
+        writeMerged(runs, buffer, file);
+    }
+
+    private void merge(RecordConsumer consumer) throws IOException {
+        merge(runs, buffer, consumer);
+    }
+
+    /**
+     * Hands the records of all {@code runFiles} and of {@code memoryRun}, each sorted by file name, to
+     * {@code consumer} in file name order.
+     */
+    private static void merge(List<Path> runFiles, List<Record> memoryRun, RecordConsumer consumer) throws IOException {
+        List<RunReader> readers = new ArrayList<>();
+        try {
+            for (Path run : runFiles) {
+                readers.add(new FileRunReader(run));
+            }
+            readers.add(new MemoryRunReader(memoryRun));
+            PriorityQueue<RunReader> heads = new PriorityQueue<>(Comparator.comparing((RunReader r) -> r.head.fileName));
+            for (RunReader reader : readers) {
+                if (reader.advance()) {
+                    heads.add(reader);
+                }
+            }
+            while (!heads.isEmpty()) {
+                RunReader reader = heads.poll();
+                consumer.accept(reader.head);
+                if (reader.advance()) {
+                    heads.add(reader);
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            for (RunReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Path run : runs) {
+            Files.deleteIfExists(run);
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    private interface RecordConsumer {
+        void accept(Record record);
+    }
+
+    private static class Record {
+        private final String fileName;
+        private final FileAnalysis analysis;
+
+        Record(String fileName, FileAnalysis analysis) {
+            this.fileName = fileName;
+            this.analysis = analysis;
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeUTF(fileName);
+            analysis.write(out);
+        }
+    }
+
+    private abstract static class RunReader implements Closeable {
+        Record head;
+
+        /**
+         * Moves to the next record, returns {@code false} at the end of the run.
+         */
+        abstract boolean advance() throws IOException;
+
+        @Override
+        public void close() throws IOException {
+        }
+    }
+
+    private static class FileRunReader extends RunReader {
+        private final DataInputStream in;
+
+        FileRunReader(Path run) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), STREAM_BUFFER));
+        }
+
+        @Override
+        boolean advance() throws IOException {
+            String fileName;
+            try {
+                fileName = in.readUTF();
+            } catch (EOFException e) {
+                head = null;
+                return false;
+            }
+            head = new Record(fileName, FileAnalysis.read(in));
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    private static class MemoryRunReader extends RunReader {
+        private final Iterator<Record> records;
+
+        MemoryRunReader(List<Record> records) {
+            this.records = records.iterator();
+        }
+
+        @Override
+        boolean advance() {
+            head = records.hasNext() ? records.next() : null;
+            return head != null;
+        }
+    }
+
+    /**
+     * The declared types of the files in id order, written to {@code file} by the first pass and read back by
+     * id to confirm the matches of their hashes.
+     */
+    private static class TypeNames implements Closeable {
+        private final Path file;
+        private final DataOutputStream out;
+        private FileChannel channel;
+        private ByteBuffer buffer = ByteBuffer.allocate(256);
+        // offsets[id] is the start of the UTF-8 name of file id, offsets[id + 1] its end
+        private long[] offsets = new long[1025];
+        private int count;
+
+        TypeNames(Path file) throws IOException {
+            this.file = file;
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), STREAM_BUFFER));
+        }
+
+        void add(String name) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            try {
+                out.write(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (count + 2 > offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            offsets[count + 1] = offsets[count] + bytes.length;
+            count++;
+        }
+
+        /**
+         * Ends adding names and opens the file for {@link #matches(int, String, int)}.
+         */
+        void finish() throws IOException {
+            out.close();
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+        }
+
+        /**
+         * Whether file {@code id} declares the type {@code name[0, end)}.
+         */
+        boolean matches(int id, String name, int end) {
+            long start = offsets[id];
+            int length = (int) (offsets[id + 1] - start);
+            // every char takes one to three bytes
+            if (length < end || length > 3 * end) {
+                return false;
+            }
+            if (buffer.capacity() < length) {
+                buffer = ByteBuffer.allocate(Math.max(length, buffer.capacity() * 2));
+            }
+            buffer.clear().limit(length);
+            try {
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, start + buffer.position()) < 0) {
+                        throw new EOFException("Truncated type names in " + file);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            byte[] bytes = buffer.array();
+            for (int i = 0; i < length; i++) {
+                if (bytes[i] < 0) {
+                    // not ASCII, compare the decoded name
+                    String declared = new String(bytes, 0, length, StandardCharsets.UTF_8);
+                    return declared.length() == end && declared.regionMatches(0, name, 0, end);
+                }
+                if (i >= end || bytes[i] != name.charAt(i)) {
+                    return false;
+                }
+            }
+            return length == end;
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+            if (channel != null) {
+                channel.close();
+            }
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Open-addressing map from type name hashes to file ids. Files declaring types with equal hashes, whether
+     * the names are equal or collide, all get an entry.
+     */
+    private static class TypeTable {
+        private final long mask;
+        private long[] keys = new long[1024];
+        private int[] values = new int[1024];
+        private int size;
+
+        TypeTable(long mask) {
+            this.mask = mask;
+            Arrays.fill(values, -1);
+        }
+
+        void put(long key, int value) {
+            if (2 * (size + 1) > keys.length) {
+                grow();
+            }
+            insert(key & mask, value);
+        }
+
+        private void insert(long key, int value) {
+            int slots = keys.length - 1;
+            for (int slot = (int) key & slots; ; slot = (slot + 1) & slots) {
+                if (values[slot] < 0) {
+                    keys[slot] = key;
+                    values[slot] = value;
+                    size++;
+                    return;
+                }
+            }
+        }
+
+        /**
+         * The lowest id stored for {@code key} whose file declares {@code name[0, end)}, like
+         * {@link SymbolIndex} picks the first of several files declaring the same type, or -1.
+         */
+        int get(long key, TypeNames names, String name, int end) {
+            key &= mask;
+            int slots = keys.length - 1;
+            int id = -1;
+            for (int slot = (int) key & slots; values[slot] >= 0; slot = (slot + 1) & slots) {
+                int value = values[slot];
+                if (keys[slot] == key && (id < 0 || value < id) && names.matches(value, name, end)) {
+                    id = value;
+                }
+            }
+            return id;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldValues.length * 2];
+            Arrays.fill(values, -1);
+            size = 0;
+            for (int slot = 0; slot < oldKeys.length; slot++) {
+                if (oldValues[slot] >= 0) {
+                    insert(oldKeys[slot], oldValues[slot]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.itestra.software_analyse_challenge;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * The types and packages declared by the files of a tree, for resolving imports. File {@code i} declares the
+ * type named like the file in its package, see {@link ImportGraph#declaredType(String, String)}.
+ * <p>
+ * Type and package names are looked up in two open-addressing tables with linear probing whose slots hold
+ * file ids, so a lookup is one hash and usually one string comparison, on a range of the imported name
+ * without creating substrings. The tables are filled in parallel by claiming slots with compare-and-set; of
+ * several files declaring the same type, the lowest id wins, as if the files were added in order. A package
+ * is identified by the lowest id of its files, and the files of every package are listed in compressed
+ * sparse row form.
+ */
+public class SymbolIndex {
+
+    /**
+     * Smaller trees are indexed on the calling thread.
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 12;
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final String[] declaredTypes;
+    private final String[] packageNames;
+    private final int[] typeSlots;
+    private final int[] packageSlots;
+    private final int[] packageStart;
+    private final int[] packageFiles;
+
+    private SymbolIndex(String[] declaredTypes, String[] packageNames) {
+        int fileCount = declaredTypes.length;
+        this.declaredTypes = declaredTypes;
+        this.packageNames = packageNames;
+        this.typeSlots = new int[capacity(fileCount)];
+        this.packageSlots = new int[capacity(fileCount)];
+        range(fileCount).forEach(id -> {
+            insert(typeSlots, declaredTypes, id);
+            insert(packageSlots, packageNames, id);
+        });
+
+        int[] packageOf = new int[fileCount];
+        range(fileCount).forEach(id -> packageOf[id] = find(packageSlots, packageNames, packageNames[id], packageNames[id].length()));
+        this.packageStart = new int[fileCount + 1];
+        for (int id = 0; id < fileCount; id++) {
+            packageStart[packageOf[id] + 1]++;
+        }
+        for (int id = 0; id < fileCount; id++) {
+            packageStart[id + 1] += packageStart[id];
+        }
+        this.packageFiles = new int[fileCount];
+        int[] next = packageStart.clone();
+        for (int id = 0; id < fileCount; id++) {
+            packageFiles[next[packageOf[id]]++] = id;
+        }
+    }
+
+    /**
+     * Indexes the files {@code fileNames} declared in the packages {@code packageNames}, in the same order.
+     */
+    public static SymbolIndex build(List<String> fileNames, String[] packageNames) {
+        String[] declaredTypes = new String[fileNames.size()];
+        range(declaredTypes.length).forEach(id -> declaredTypes[id] = ImportGraph.declaredType(fileNames.get(id), packageNames[id]));
+        return new SymbolIndex(declaredTypes, packageNames);
+    }
+
+    /**
+     * The file declaring {@code typeName} or, for a nested type, its outermost enclosing type, or -1.
+     */
+    public int resolveType(String typeName) {
+        int end = typeName.length();
+        while (true) {
+            int id = find(typeSlots, declaredTypes, typeName, end);
+            if (id >= 0) {
+                return id;
+            }
+            end = typeName.lastIndexOf('.', end - 1);
+            if (end <= 0) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * The package named {@code packageName}, identified by its first file, or -1 if no file declares it.
+     */
+    public int resolvePackage(String packageName) {
+        return find(packageSlots, packageNames, packageName, packageName.length());
+    }
+
+    /**
+     * Calls {@code action} with every file of {@code pkg}, as returned by {@link #resolvePackage(String)}, in
+     * id order.
+     */
+    public void forEachFile(int pkg, IntConsumer action) {
+        for (int i = packageStart[pkg]; i < packageStart[pkg + 1]; i++) {
+            action.accept(packageFiles[i]);
+        }
+    }
+
+    /**
+     * The package of file {@code id}, see {@link #resolvePackage(String)}.
+     */
+    public String getPackageName(int id) {
+        return packageNames[id];
+    }
+
+    private static IntStream range(int count) {
+        IntStream ids = IntStream.range(0, count);
+        return count < PARALLEL_THRESHOLD ? ids : ids.parallel();
+    }
+
+    private static int capacity(int count) {
+        return Integer.highestOneBit(Math.max(1, count) * 2 - 1) << 1;
+    }
+
+    private static int slot(int hash, int mask) {
+        return (hash * 0x9e3779b9 >>> 16 ^ hash) & mask;
+    }
+
+    private static void insert(int[] slots, String[] keys, int id) {
+        String key = keys[id];
+        int mask = slots.length - 1;
+        int slot = slot(key.hashCode(), mask);
+        while (true) {
+            int entry = (int) SLOTS.getVolatile(slots, slot);
+            if (entry == 0) {
+                if (SLOTS.compareAndSet(slots, slot, 0, id + 1)) {
+                    return;
+                }
+                // taken by another file in the meantime, look at the slot again
+                continue;
+            }
+            if (keys[entry - 1].equals(key)) {
+                if (entry <= id + 1 || SLOTS.compareAndSet(slots, slot, entry, id + 1)) {
+                    return;
+                }
+                continue;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * The id stored for {@code name[0, end)}, or -1.
+     */
+    private static int find(int[] slots, String[] keys, String name, int end) {
+        int hash = end == name.length() ? name.hashCode() : hash(name, end);
+        int mask = slots.length - 1;
+        for (int slot = slot(hash, mask); ; slot = (slot + 1) & mask) {
+            int entry = slots[slot];
+            if (entry == 0) {
+                return -1;
+            }
+            String key = keys[entry - 1];
+            if (key.length() == end && key.regionMatches(0, name, 0, end)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    /**
+     * {@link String#hashCode()} of {@code name[0, end)}.
+     */
+    private static int hash(String name, int end) {
+        int hash = 0;
+        for (int i = 0; i < end; i++) {
+            hash = 31 * hash + name.charAt(i);
+        }
+        return hash;
+    }
+}
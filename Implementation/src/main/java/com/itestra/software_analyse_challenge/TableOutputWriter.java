@@ -0,0 +1,126 @@
+package com.itestra.software_analyse_challenge;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The original table layout: every column right-aligned to its widest cell. The column widths depend on
+ * all files, so the cells are kept until {@link #finish()}, but the widths are tracked while writing.
+ * If the widths are known in advance, see {@link #TableOutputWriter(Writer, int[])}, every row is written
+ * immediately instead.
+ */
+public class TableOutputWriter implements OutputWriter {
+
+    static final String[] HEADER = {"File", "Source Lines", "Source Lines without Getters and Block Comments", "Dependencies"};
+
+    private static final int COLUMNS = 4;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final Writer out;
+    private final boolean streaming;
+    private final List<String> cells = new ArrayList<>();
+    private final int[] widths;
+    private final List<String> removed = new ArrayList<>();
+    private String commit;
+    private char[] spaces;
+    private boolean headerWritten;
+
+    public TableOutputWriter(Writer out) {
+        this.out = out;
+        this.streaming = false;
+        this.widths = new int[COLUMNS];
+        addRow(HEADER);
+    }
+
+    /**
+     * A writer for rows whose cells are never wider than {@code widths}, which must include the header.
+     */
+    public TableOutputWriter(Writer out, int[] widths) {
+        this.out = out;
+        this.streaming = true;
+        this.widths = widths.clone();
+        for (int column = 0; column < COLUMNS; column++) {
+            this.widths[column] = Math.max(this.widths[column], HEADER[column].length());
+        }
+    }
+
+    @Override
+    public void write(String fileName, Output output) throws IOException {
+        String[] row = {fileName, output.getLineNumber(), output.getLineNumberBonus(), output.getDependencies()};
+        if (streaming) {
+            writeHeader();
+            writeRow(row);
+        } else {
+            addRow(row);
+        }
+    }
+
+    private void addRow(String... row) {
+        for (int column = 0; column < COLUMNS; column++) {
+            cells.add(row[column]);
+            widths[column] = Math.max(widths[column], row[column].length());
+        }
+    }
+
+    @Override
+    public void remove(String fileName) {
+        removed.add(fileName);
+    }
+
+    @Override
+    public void commit(String commit) {
+        this.commit = commit;
+    }
+
+    private void writeHeader() throws IOException {
+        if (headerWritten) {
+            return;
+        }
+        headerWritten = true;
+        spaces = new char[Arrays.stream(widths).max().orElse(0)];
+        Arrays.fill(spaces, ' ');
+        if (commit != null) {
+            out.write("Commit: ");
+            out.write(commit);
+            out.write(LINE_SEPARATOR);
+            commit = null;
+        }
+        out.write("Result: ");
+        out.write(LINE_SEPARATOR);
+        if (streaming) {
+            writeRow(HEADER);
+        }
+    }
+
+    private void writeRow(String[] row) throws IOException {
+        for (int column = 0; column < COLUMNS; column++) {
+            String cell = row[column];
+            out.write(column == 0 ? "| " : " | ");
+            out.write(spaces, 0, widths[column] - cell.length());
+            out.write(cell);
+        }
+        out.write(" |");
+        out.write(LINE_SEPARATOR);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writeHeader();
+        String[] row = new String[COLUMNS];
+        for (int i = 0; i < cells.size(); i += COLUMNS) {
+            writeRow(cells.subList(i, i + COLUMNS).toArray(row));
+        }
+        for (String fileName : removed) {
+            out.write("Removed: ");
+            out.write(fileName);
+            out.write(LINE_SEPARATOR);
+        }
+        cells.clear();
+        removed.clear();
+        headerWritten = false;
+        out.flush();
+    }
+}
@@ -0,0 +1,124 @@
+package com.itestra.software_analyse_challenge;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class AnalysisCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path writeSource(String content) throws IOException {
+        Path file = tempDir.resolve("Example.java");
+        Files.writeString(file, content);
+        return file;
+    }
+
+    /**
+     * Analyses {@code file} through a fresh cache loaded from {@code cacheFile} and returns how often the file
+     * was analysed, 0 if the cached result was reused.
+     */
+    private static int analyseCounting(Path cacheFile, ProjectRegistry registry, Charset charset, Path file) {
+        AtomicInteger analysed = new AtomicInteger();
+        Supplier<FileAnalysis> analyser = () -> {
+            analysed.incrementAndGet();
+            return FileAnalyser.analyse(file, registry, charset);
+        };
+        AnalysisCache cache = AnalysisCache.load(cacheFile, registry, charset);
+        cache.analyse("Example.java", file, analyser);
+        cache.save();
+        return analysed.get();
+    }
+
+    @Test
+    void testAnalyse_ChangedFile_AnalysedAgain() throws IOException {
+        Path cacheFile = tempDir.resolve("cache.bin");
+        Path file = writeSource("import spark.Request;\nint a = 1;\n");
+
+        AnalysisCache first = AnalysisCache.load(cacheFile);
+        FileAnalysis analysis = first.analyse("Example.java", file);
+        first.save();
+
+        Files.writeString(file, "int a = 1;\nint b = 2;\nint c = 3;\n");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(0));
+        AnalysisCache second = AnalysisCache.load(cacheFile);
+        FileAnalysis changed = second.analyse("Example.java", file);
+        assertEquals(3, changed.getLineNumber());
+        assertEquals(List.of(), changed.getDependencies());
+        second.save();
+
+        AnalysisCache third = AnalysisCache.load(cacheFile);
+        assertEquals(3, third.analyse("Example.java", file).getLineNumber());
+        assertEquals(2, analysis.getLineNumber());
+        assertEquals(List.of("spark"), analysis.getDependencies());
+        assertEquals(List.of("spark.Request"), analysis.getImports());
+    }
+
+    @Test
+    void testAnalyse_TouchedFileWithSameContent_ReusesCachedOutput() throws IOException {
+        Path cacheFile = tempDir.resolve("cache.bin");
+        Path file = writeSource("""
+                public int getSize() {
+                    return size;
+                }
+                """);
+
+        AnalysisCache first = AnalysisCache.load(cacheFile);
+        first.analyse("Example.java", file);
+        first.save();
+
+        Files.setLastModifiedTime(file, FileTime.fromMillis(42));
+        AnalysisCache second = AnalysisCache.load(cacheFile);
+        FileAnalysis analysis = second.analyse("Example.java", file);
+        assertEquals(3, analysis.getLineNumber());
+        assertEquals(0, analysis.getLineNumberBonus());
+        assertSame(analysis, second.analyse("Example.java", file));
+    }
+
+    @Test
+    void testLoad_OtherAnalyserVersion_DiscardsEntries() throws IOException {
+        Path cacheFile = tempDir.resolve("cache.bin");
+        Path file = writeSource("import spark.Request;\nint a = 1;\n");
+        ProjectRegistry registry = ProjectRegistry.DEFAULT;
+
+        assertEquals(1, analyseCounting(cacheFile, registry, StandardCharsets.UTF_8, file));
+        assertEquals(0, analyseCounting(cacheFile, registry, StandardCharsets.UTF_8, file));
+
+        // the version follows the magic number
+        try (RandomAccessFile raf = new RandomAccessFile(cacheFile.toFile(), "rw")) {
+            raf.seek(Integer.BYTES);
+            raf.writeInt(AnalysisCache.ANALYSER_VERSION - 1);
+        }
+        assertEquals(1, analyseCounting(cacheFile, registry, StandardCharsets.UTF_8, file));
+        assertEquals(0, analyseCounting(cacheFile, registry, StandardCharsets.UTF_8, file));
+    }
+
+    @Test
+    void testLoad_OtherConfiguration_DiscardsEntries() throws IOException {
+        Path cacheFile = tempDir.resolve("cache.bin");
+        Path file = writeSource("import spark.Request;\nint a = 1;\n");
+        ProjectRegistry other = new ProjectRegistry(Map.of("spark", "spark", "acme", "acme"));
+
+        assertEquals(1, analyseCounting(cacheFile, ProjectRegistry.DEFAULT, StandardCharsets.UTF_8, file));
+        assertEquals(0, analyseCounting(cacheFile, ProjectRegistry.DEFAULT, StandardCharsets.UTF_8, file));
+        assertEquals(1, analyseCounting(cacheFile, other, StandardCharsets.UTF_8, file));
+        assertEquals(0, analyseCounting(cacheFile, other, StandardCharsets.UTF_8, file));
+        assertEquals(1, analyseCounting(cacheFile, other, StandardCharsets.ISO_8859_1, file));
+        assertEquals(0, analyseCounting(cacheFile, other, StandardCharsets.ISO_8859_1, file));
+    }
+}
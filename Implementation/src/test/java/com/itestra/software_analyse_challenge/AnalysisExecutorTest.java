@@ -0,0 +1,98 @@
+package com.itestra.software_analyse_challenge;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AnalysisExecutorTest {
+
+    private static final Path CODE_EXAMPLES = Path.of(SourceCodeAnalyser.DEFAULT_INPUT_DIR);
+
+    private static String analyse(String... args) throws IOException {
+        Input input = SourceCodeAnalyser.parseInput(args);
+        StringWriter out = new StringWriter();
+        SourceCodeAnalyser.analyse(input, input.getFormat().open(out));
+        return out.toString();
+    }
+
+    @Test
+    void testAnalyse_SeveralThreads_SameOutputAsOne() throws IOException {
+        String directory = CODE_EXAMPLES.toString();
+        String sequential = analyse("-i", directory, "--threads", "1");
+        assertFalse(sequential.isEmpty());
+        assertEquals(sequential, analyse("-i", directory, "--threads", "4"));
+        assertEquals(analyse("-i", directory, "-f", "csv", "--threads", "1"), analyse("-i", directory, "-f", "csv", "--threads", "3"));
+    }
+
+    @Test
+    void testAwaitCompletion_FailedTask_ReachesCaller() {
+        RuntimeException cause = new RuntimeException("broken file");
+        try (AnalysisExecutor executor = new AnalysisExecutor(2)) {
+            executor.submit(() -> {
+            });
+            executor.submit(() -> {
+                throw cause;
+            });
+            IllegalStateException e = assertThrows(IllegalStateException.class, executor::awaitCompletion);
+            assertSame(cause, e.getCause());
+        }
+    }
+
+    @Test
+    void testSubmit_SingleThread_FailedTaskReachesCaller() {
+        RuntimeException cause = new RuntimeException("broken file");
+        try (AnalysisExecutor executor = new AnalysisExecutor(1)) {
+            assertSame(cause, assertThrows(RuntimeException.class, () -> executor.submit(() -> {
+                throw cause;
+            })));
+        }
+    }
+
+    @Test
+    void testSubmit_AllSlotsTaken_BlocksUntilOneIsFree() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger finished = new AtomicInteger();
+        Runnable blocking = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            finished.incrementAndGet();
+        };
+        try (AnalysisExecutor executor = new AnalysisExecutor(2)) {
+            int slots = executor.availableSlots();
+            for (int i = 0; i < slots; i++) {
+                executor.submit(blocking);
+            }
+            assertEquals(0, executor.availableSlots());
+
+            CountDownLatch submitted = new CountDownLatch(1);
+            Thread producer = new Thread(() -> {
+                executor.submit(finished::incrementAndGet);
+                submitted.countDown();
+            });
+            producer.start();
+            assertFalse(submitted.await(200, TimeUnit.MILLISECONDS));
+            assertEquals(Thread.State.WAITING, producer.getState());
+
+            release.countDown();
+            assertTrue(submitted.await(10, TimeUnit.SECONDS));
+            producer.join();
+            executor.awaitCompletion();
+            assertEquals(slots + 1, finished.get());
+            assertEquals(slots, executor.availableSlots());
+        }
+    }
+}
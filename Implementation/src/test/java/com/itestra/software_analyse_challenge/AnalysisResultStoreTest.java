@@ -0,0 +1,54 @@
+package com.itestra.software_analyse_challenge;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class AnalysisResultStoreTest {
+
+    @Test
+    void testBuild_KeepsCountsPathsAndDependencies() {
+        Map<String, FileAnalysis> analyses = new HashMap<>();
+        analyses.put("fig/b/B.java", new FileAnalysis(5, 5, "fig.b", List.of("spark.C"), List.of("spark")));
+        analyses.put("fig/A.java", new FileAnalysis(10, 8, "fig", List.of("fig.b.B"), List.of("fig")));
+        analyses.put("spark/C.java", new FileAnalysis(3, 3, "spark", List.of(), List.of()));
+
+        AnalysisResultStore store = AnalysisResultStore.build(analyses, ImportGraph.build(analyses), ProjectRegistry.DEFAULT);
+
+        assertEquals(3, store.size());
+        assertEquals("fig/A.java", store.getFileName(0));
+        assertEquals("fig/b/B.java", store.getFileName(1));
+        assertEquals(1, store.indexOf("fig/b/B.java"));
+        assertEquals(-1, store.indexOf("fig/b"));
+        assertEquals(-1, store.indexOf("fig/Missing.java"));
+        assertEquals(List.of("fig", "spark"), store.getDependencies(0));
+        assertEquals(8, store.getLineNumberBonus(0));
+        assertEquals("fig", store.getProject(1));
+
+        Map<String, Output> outputs = store.asMap();
+        assertEquals("8", outputs.get("fig/A.java").getLineNumberBonus());
+        assertEquals("N/A", outputs.get("fig/b/B.java").getLineNumberBonus());
+        assertEquals("[spark]", outputs.get("fig/b/B.java").getDependencies());
+        assertNull(outputs.get("x.java"));
+        assertEquals("[]", store.getOutputLine(2).getDependencies());
+    }
+
+    @Test
+    void testPathTrie_SharesPrefixesAcrossGrowth() {
+        PathTrie trie = new PathTrie();
+        int[] nodes = new int[1000];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = trie.add("dir" + (i % 7) + "/sub/File" + i + ".java");
+        }
+        for (int i = 0; i < nodes.length; i++) {
+            assertEquals("dir" + (i % 7) + "/sub/File" + i + ".java", trie.getPath(nodes[i]));
+            assertEquals(nodes[i], trie.find("dir" + (i % 7) + "/sub/File" + i + ".java"));
+        }
+        assertEquals(1 + 7 + 7 + 1000, trie.size());
+    }
+}
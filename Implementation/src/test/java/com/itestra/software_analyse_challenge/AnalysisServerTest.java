@@ -0,0 +1,93 @@
+package com.itestra.software_analyse_challenge;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AnalysisServerTest {
+
+    private AnalysisServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        Map<String, FileAnalysis> analyses = new HashMap<>();
+        analyses.put("fig/A.java", new FileAnalysis(10, 8, "fig", List.of("spark.B"), List.of("spark")));
+        analyses.put("spark/B.java", new FileAnalysis(5, 5, "spark", List.of(), List.of()));
+        server = new AnalysisServer(0);
+        server.update(AnalysisResultStore.build(analyses, ImportGraph.build(analyses), ProjectRegistry.DEFAULT));
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop();
+    }
+
+    private String get(String pathAndQuery) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AnalysisClient.fetch(server.getPort(), pathAndQuery, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testQueries() throws IOException {
+        assertEquals("{\"file\":\"fig/A.java\",\"sourceLines\":10,\"sourceLinesBonus\":8,\"dependencies\":[\"spark\"]}\n",
+                get("/file?path=fig%2FA.java"));
+        assertEquals("[\"fig/A.java\"]\n", get("/dependents?project=spark"));
+        assertEquals("[]\n", get("/dependents?project=unknown"));
+        assertEquals("[\"fig/A.java\"]\n", get("/dependents?file=spark%2FB.java"));
+        assertEquals("[]\n", get("/dependents?file=fig%2FA.java"));
+        assertEquals("{\"fig\":{\"files\":1,\"sourceLines\":10,\"sourceLinesBonus\":8},"
+                + "\"spark\":{\"files\":1,\"sourceLines\":5,\"sourceLinesBonus\":5}}\n", get("/sloc"));
+        assertTrue(get("/result").startsWith("Result: "));
+        assertEquals("file,source_lines,source_lines_bonus,dependencies\r\nfig/A.java,10,8,spark\r\nspark/B.java,5,,\r\n",
+                get("/result?format=csv"));
+    }
+
+    @Test
+    void testErrors() {
+        IOException unknownFile = assertThrows(IOException.class, () -> get("/file?path=x.java"));
+        assertTrue(unknownFile.getMessage().startsWith("Server answered 404"));
+        IOException unknownDependency = assertThrows(IOException.class, () -> get("/dependents?file=x.java"));
+        assertTrue(unknownDependency.getMessage().startsWith("Server answered 404"));
+        IOException missing = assertThrows(IOException.class, () -> get("/dependents"));
+        assertTrue(missing.getMessage().startsWith("Server answered 400"));
+    }
+
+    @Test
+    void testParseQuery_MalformedEscape_IsBadRequest() {
+        assertEquals(Map.of("path", "fig/A.java", "x", ""), AnalysisServer.parseQuery("path=fig%2FA.java&x"));
+        assertEquals(400, assertThrows(AnalysisServer.RequestException.class, () -> AnalysisServer.parseQuery("path=%zz")).getStatus());
+        assertEquals(400, assertThrows(AnalysisServer.RequestException.class, () -> AnalysisServer.parseQuery("path=a%2")).getStatus());
+    }
+
+    @Test
+    void testMalformedQuery_AnswersBadRequest() throws IOException {
+        // URI rejects malformed escapes, so the request is written by hand
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            OutputStream out = socket.getOutputStream();
+            out.write("GET /file?path=%zz HTTP/1.1\r\nHost: 127.0.0.1\r\nConnection: close\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            String statusLine = in.readLine();
+            assertTrue(statusLine != null && statusLine.startsWith("HTTP/1.1 400"), statusLine);
+        }
+        assertTrue(get("/result").startsWith("Result: "));
+    }
+}
@@ -0,0 +1,74 @@
+package com.itestra.software_analyse_challenge;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AnalysisSnapshotTest {
+
+    private static AnalysisResultStore store(Map<String, FileAnalysis> analyses) {
+        return AnalysisResultStore.build(analyses, ImportGraph.build(analyses), ProjectRegistry.DEFAULT);
+    }
+
+    private static Map<String, FileAnalysis> base() {
+        Map<String, FileAnalysis> analyses = new HashMap<>();
+        analyses.put("fig/A.java", new FileAnalysis(10, 8, "fig", List.of("spark.B"), List.of("spark")));
+        analyses.put("fig/Gone.java", new FileAnalysis(3, 3, "fig", List.of(), List.of()));
+        analyses.put("spark/B.java", new FileAnalysis(5, 5, "spark", List.of(), List.of()));
+        analyses.put("x/Y.java", new FileAnalysis(7, 6, "x", List.of(), List.of()));
+        return analyses;
+    }
+
+    @Test
+    void testWriteAndOpen_SameContent(@TempDir Path tempDir) throws IOException {
+        AnalysisResultStore results = store(base());
+        Path file = tempDir.resolve("base.snap");
+        AnalysisSnapshot.of(results).write(file);
+
+        AnalysisSnapshot snapshot = AnalysisSnapshot.open(file);
+
+        assertEquals(results.size(), snapshot.size());
+        assertEquals(List.of("fig", "spark"), snapshot.getProjectNames());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(results.getFileName(i), snapshot.getFileName(i));
+            assertEquals(results.getLineNumber(i), snapshot.getLineNumber(i));
+            assertEquals(results.getLineNumberBonus(i), snapshot.getLineNumberBonus(i));
+            assertEquals(results.getProject(i), snapshot.getProject(i));
+            assertEquals(results.getDependencies(i), snapshot.getDependencies(i));
+        }
+
+        Files.write(file, new byte[]{1, 2, 3});
+        assertThrows(IOException.class, () -> AnalysisSnapshot.open(file));
+    }
+
+    @Test
+    void testDiff_ReportsOnlyChanges() throws IOException {
+        Map<String, FileAnalysis> head = base();
+        head.remove("fig/Gone.java");
+        head.put("fig/A.java", new FileAnalysis(12, 8, "fig", List.of("spark.B", "cronutils.C"), List.of("spark", "cron-utils")));
+        head.put("cronutils/C.java", new FileAnalysis(4, 4, "cronutils", List.of(), List.of()));
+        StringWriter out = new StringWriter();
+
+        SnapshotDiff.write(AnalysisSnapshot.of(store(base())), AnalysisSnapshot.of(store(head)), out);
+
+        assertEquals("Files:\n"
+                + "  + cronutils/C.java: 4 source lines, bonus 4, dependencies []\n"
+                + "  ~ fig/A.java: source lines 10 -> 12 (+2), dependencies +[cron-utils]\n"
+                + "  - fig/Gone.java: 3 source lines\n"
+                + "Cross-project dependencies:\n"
+                + "  + fig -> cron-utils (1 file)\n"
+                + "Source lines per project:\n"
+                + "  cron-utils: 0 -> 4 (+4), bonus 0 -> 4 (+4)\n"
+                + "  fig: 13 -> 12 (-1), bonus 11 -> 8 (-3)\n", out.toString());
+    }
+}
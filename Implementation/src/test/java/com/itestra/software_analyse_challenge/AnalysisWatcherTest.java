@@ -0,0 +1,143 @@
+package com.itestra.software_analyse_challenge;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AnalysisWatcherTest {
+
+    private static final long TIMEOUT_SECONDS = 20;
+
+    @TempDir
+    Path tempDir;
+
+    private final BlockingQueue<Update> updates = new LinkedBlockingQueue<>();
+    private Thread watcher;
+
+    private static class Update {
+        private final AnalysisResultStore results;
+        private final List<String> changed;
+        private final List<String> removed;
+
+        Update(AnalysisResultStore results, List<String> changed, List<String> removed) {
+            this.results = results;
+            this.changed = List.copyOf(changed);
+            this.removed = List.copyOf(removed);
+        }
+    }
+
+    private void write(String fileName, String content) throws IOException {
+        Path file = tempDir.resolve(fileName);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+
+    @BeforeEach
+    void startWatcher() throws Exception {
+        write("A.java", "int a;\n");
+        write("B.java", "int b;\n");
+        write("a/b/X.java", "int x;\nint y;\n");
+        Input input = SourceCodeAnalyser.parseInput(new String[]{"-i", tempDir.toString()});
+        AnalysisWatcher analysisWatcher = new AnalysisWatcher(input, SourceCodeAnalyser.analyseFiles(input),
+                (results, changed, removed) -> updates.add(new Update(results, changed, removed)));
+        watcher = new Thread(() -> {
+            try {
+                analysisWatcher.run();
+            } catch (IOException e) {
+                e.printStackTrace();
+            } catch (InterruptedException e) {
+                // stopped by the test
+            }
+        });
+        watcher.start();
+        Update initial = next();
+        assertEquals(List.of("A.java", "B.java", "a/b/X.java"), initial.changed);
+    }
+
+    @AfterEach
+    void stopWatcher() throws InterruptedException {
+        watcher.interrupt();
+        watcher.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+    }
+
+    private Update next() throws InterruptedException {
+        Update update = updates.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertNotNull(update, "no update from the watcher");
+        return update;
+    }
+
+    /**
+     * Collects updates until one reports {@code fileName} as changed, and returns them.
+     */
+    private List<Update> untilChanged(String fileName) throws InterruptedException {
+        List<Update> received = new ArrayList<>();
+        do {
+            received.add(next());
+        } while (!received.get(received.size() - 1).changed.contains(fileName));
+        return received;
+    }
+
+    @Test
+    void testModifiedFile_IsAnalysedAgain() throws Exception {
+        write("A.java", "int a;\nint b;\nint c;\n");
+
+        Update update = untilChanged("A.java").get(0);
+        assertEquals(3, update.results.getLineNumber(update.results.indexOf("A.java")));
+        assertEquals(List.of(), update.removed);
+    }
+
+    @Test
+    void testDeletedFile_IsRemoved() throws Exception {
+        Files.delete(tempDir.resolve("B.java"));
+
+        Update update = next();
+        assertEquals(List.of("B.java"), update.removed);
+        assertEquals(-1, update.results.indexOf("B.java"));
+        assertEquals(2, update.results.size());
+    }
+
+    @Test
+    void testDeletedDirectory_RemovesItsFiles() throws Exception {
+        Files.delete(tempDir.resolve("a/b/X.java"));
+        Files.delete(tempDir.resolve("a/b"));
+
+        Update update = next();
+        assertEquals(List.of("a/b/X.java"), update.removed);
+        assertEquals(List.of("A.java", "B.java"), List.of(update.results.getFileName(0), update.results.getFileName(1)));
+    }
+
+    @Test
+    void testDirectoryAttributesChanged_KeepsItsFiles() throws Exception {
+        Path directory = tempDir.resolve("a/b");
+        Files.setLastModifiedTime(directory, FileTime.fromMillis(System.currentTimeMillis() - 60_000));
+        if (Files.getFileStore(directory).supportsFileAttributeView("posix")) {
+            Files.setPosixFilePermissions(directory, PosixFilePermissions.fromString("rwxr-x---"));
+        }
+        // a change after the attribute changes, so that their events have been handled when it arrives
+        write("A.java", "int a;\nint b;\n");
+
+        List<Update> received = untilChanged("A.java");
+        for (Update update : received) {
+            assertEquals(List.of(), update.removed);
+        }
+        AnalysisResultStore results = received.get(received.size() - 1).results;
+        assertTrue(results.indexOf("a/b/X.java") >= 0);
+        assertEquals(2, results.getLineNumber(results.indexOf("a/b/X.java")));
+    }
+}
@@ -0,0 +1,122 @@
+package com.itestra.software_analyse_challenge;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ChunkedLineCounterTest {
+
+    private static final String[] FRAGMENTS = {
+            "int a = 1;\n",
+            "\n",
+            "   \t\n",
+            "// comment\n",
+            "/* block\n",
+            " * still in the block\n",
+            "*/ int b = 2;\n",
+            "end of block */\n",
+            "String s = \"\"\"\n",
+            "  text /* not a comment\n",
+            "  \"\"\";\n",
+            "public String getName() {\n",
+            "public int getCount()\n",
+            "{\n",
+            "return this.name;\n",
+            "return count; }\n",
+            "}\n",
+            "char c = '\"';\n",
+            "String t = \"/* not a comment */\";\n",
+            "x = 1; // trailing\r\n",
+            "y = 2;\r",
+            "z = 3; /* inline */ w = 4;\n",
+    };
+
+    private static final String[] DEPENDENCY_FRAGMENTS = {
+            "package fig.gen;\n",
+            "import spark.Spark;\n",
+            "import cronutils.model.*;\n",
+            "import static fig.Util.run;\n",
+            "spark.route.Routes r = fig.Config.load();\n",
+            "int d = a.b.C;\n",
+            "/* import fig.Hidden;\n",
+            "  cronutils.parser.Parser p; */\n",
+            "String q = \"\"\"\n",
+            "  spark.Hidden in text\n",
+            "  \"\"\";\n",
+            "public int getCount() {\n",
+            "return count; }\n",
+            "int a = 1;\n",
+    };
+
+    @Test
+    void testCount_SameAsSequential_ForEveryChunkSize(@TempDir Path tempDir) throws IOException {
+        Random random = new Random(42);
+        for (int file = 0; file < 20; file++) {
+            StringBuilder content = new StringBuilder();
+            int fragments = random.nextInt(400);
+            for (int i = 0; i < fragments; i++) {
+                content.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+            }
+            if (file % 5 == 0) {
+                content.insert(0, '\uFEFF');
+            }
+            Path path = tempDir.resolve("Generated" + file + ".java");
+            Files.writeString(path, content, StandardCharsets.UTF_8);
+
+            SourceLineCounter sourceLineCounter = new SourceLineCounter();
+            BonusLineCounter bonusLineCounter = new BonusLineCounter();
+            FileAnalyser.analyse(path, sourceLineCounter, bonusLineCounter);
+            for (int chunkSize : new int[]{1, 7, 64, 500, ChunkedLineCounter.CHUNK_SIZE}) {
+                ChunkedLineCounter counter = ChunkedLineCounter.count(path, StandardCharsets.UTF_8, chunkSize);
+                assertEquals(sourceLineCounter.getCount(), counter.getSourceLines(), content + " in chunks of " + chunkSize);
+                assertEquals(bonusLineCounter.getCount(), counter.getBonusLines(), content + " in chunks of " + chunkSize);
+            }
+        }
+    }
+
+    @Test
+    void testFileAnalyser_LoweredThreshold_SameAnalysisAsSequential(@TempDir Path tempDir) throws IOException {
+        Random random = new Random(7);
+        for (int file = 0; file < 20; file++) {
+            StringBuilder content = new StringBuilder();
+            int fragments = random.nextInt(300);
+            for (int i = 0; i < fragments; i++) {
+                content.append(DEPENDENCY_FRAGMENTS[random.nextInt(DEPENDENCY_FRAGMENTS.length)]);
+            }
+            Path path = tempDir.resolve("Generated" + file + ".java");
+            Files.writeString(path, content, StandardCharsets.UTF_8);
+
+            FileAnalysis sequential = FileAnalyser.analyse(path, ProjectRegistry.DEFAULT, StandardCharsets.UTF_8, Long.MAX_VALUE, 0);
+            for (int chunkSize : new int[]{1, 30, 400}) {
+                FileAnalysis chunked = FileAnalyser.analyse(path, ProjectRegistry.DEFAULT, StandardCharsets.UTF_8, 0, chunkSize);
+                String message = content + " in chunks of " + chunkSize;
+                assertEquals(sequential.getLineNumber(), chunked.getLineNumber(), message);
+                assertEquals(sequential.getLineNumberBonus(), chunked.getLineNumberBonus(), message);
+                assertEquals(sequential.getPackageName(), chunked.getPackageName(), message);
+                assertEquals(sequential.getImports(), chunked.getImports(), message);
+                assertEquals(Set.copyOf(sequential.getDependencies()), Set.copyOf(chunked.getDependencies()), message);
+                assertEquals(sequential.getWildcardImports(), chunked.getWildcardImports(), message);
+                assertEquals(sequential.getStaticImports(), chunked.getStaticImports(), message);
+                assertEquals(sequential.getQualifiedTypes(), chunked.getQualifiedTypes(), message);
+            }
+        }
+    }
+
+    @Test
+    void testCount_Utf16_NotSplit(@TempDir Path tempDir) throws IOException {
+        Path path = tempDir.resolve("Utf16.java");
+        Files.writeString(path, "\uFEFFint a;\n// c\npublic int getA() {\nreturn a;\n}\nint b;\n", StandardCharsets.UTF_16LE);
+
+        ChunkedLineCounter counter = ChunkedLineCounter.count(path, StandardCharsets.UTF_8, 4);
+        assertEquals(5, counter.getSourceLines());
+        assertEquals(2, counter.getBonusLines());
+    }
+}
@@ -0,0 +1,107 @@
+package com.itestra.software_analyse_challenge;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ContentDeduplicatorTest {
+
+    private static final String SOURCE = """
+            package com.acme;
+
+            import spark.Request;
+
+            public class A {
+                Request request;
+            }
+            """;
+
+    @Test
+    void testContentHash_MurmurVerificationValue() throws IOException {
+        // the verification of SMHasher: hash keys 0, 0 1, 0 1 2, ... with seed 256 - length, then the hashes
+        byte[] key = new byte[256];
+        ByteBuffer hashes = ByteBuffer.allocate(256 * 16).order(ByteOrder.LITTLE_ENDIAN);
+        for (int length = 0; length < 256; length++) {
+            key[length] = (byte) length;
+            ContentHash hash = ContentHash.of(new ByteArrayInputStream(key, 0, length), 256 - length);
+            hashes.putLong(hash.getHash1()).putLong(hash.getHash2());
+        }
+        ContentHash result = ContentHash.of(new ByteArrayInputStream(hashes.array()), 0);
+        assertEquals(0x6384BA69, (int) result.getHash1());
+    }
+
+    @Test
+    void testContentHash_IndependentOfReadSizes() throws IOException {
+        byte[] content = new byte[20_000];
+        Arrays.fill(content, (byte) 'x');
+        ContentHash whole = ContentHash.of(new ByteArrayInputStream(content), 0);
+        // a stream returning odd-sized reads
+        ContentHash pieces = ContentHash.of(new ByteArrayInputStream(content) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 7));
+            }
+        }, 0);
+        assertEquals(whole, pieces);
+        content[19_999] = 'y';
+        assertNotEquals(whole, ContentHash.of(new ByteArrayInputStream(content), 0));
+    }
+
+    @Test
+    void testAnalyse_IdenticalFiles_AnalysedOnce(@TempDir Path tempDir) throws IOException {
+        Path a = Files.writeString(tempDir.resolve("A.java"), SOURCE);
+        Path b = Files.writeString(tempDir.resolve("B.java"), SOURCE);
+        Path c = Files.writeString(tempDir.resolve("C.java"), SOURCE.replace("request", "response"));
+        Path d = Files.writeString(tempDir.resolve("D.java"), SOURCE);
+        ContentDeduplicator deduplicator = new ContentDeduplicator();
+        AtomicInteger analysed = new AtomicInteger();
+
+        FileAnalysis first = null;
+        for (Path file : List.of(a, b, c, d)) {
+            FileAnalysis analysis = deduplicator.analyse(file.getFileName().toString(), file, () -> {
+                analysed.incrementAndGet();
+                return FileAnalyser.analyse(file);
+            });
+            if (first == null) {
+                first = analysis;
+            } else if (!file.equals(c)) {
+                assertSame(first, analysis);
+            }
+        }
+
+        assertEquals(2, analysed.get());
+        assertEquals(List.of(List.of("A.java", "B.java", "D.java")), deduplicator.getClusters());
+    }
+
+    @Test
+    void testAnalyseWithDedup_SameOutput(@TempDir Path tempDir) throws IOException {
+        Files.createDirectories(tempDir.resolve("one/com/acme"));
+        Files.createDirectories(tempDir.resolve("two/com/acme"));
+        Files.writeString(tempDir.resolve("one/com/acme/A.java"), SOURCE);
+        Files.writeString(tempDir.resolve("two/com/acme/A.java"), SOURCE);
+        Files.writeString(tempDir.resolve("two/com/acme/B.java"), SOURCE.replace("class A", "class B"));
+
+        Map<String, Output> expected = SourceCodeAnalyser.analyse(SourceCodeAnalyser.parseInput(new String[]{"-i", tempDir.toString()}));
+        Map<String, Output> actual = SourceCodeAnalyser.analyse(SourceCodeAnalyser.parseInput(new String[]{"-i", tempDir.toString(), "--dedup", "-t", "2"}));
+        assertEquals(expected.keySet(), actual.keySet());
+        for (String fileName : expected.keySet()) {
+            assertEquals(expected.get(fileName).getLineNumber(), actual.get(fileName).getLineNumber());
+            assertEquals(expected.get(fileName).getLineNumberBonus(), actual.get(fileName).getLineNumberBonus());
+            assertEquals(expected.get(fileName).getDependencies(), actual.get(fileName).getDependencies());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.itestra.software_analyse_challenge;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class DependencyCollectorTest {
+
+    private static DependencyCollector collect(String... lines) {
+        DependencyCollector collector = new DependencyCollector();
+        JavaLexer lexer = new JavaLexer();
+        for (String line : lines) {
+            collector.analyseLine(lexer.next(line));
+        }
+        return collector;
+    }
+
+    @Test
+    void testAnalyseLine_WildcardAndStaticImports_CollectedSeparately() {
+        DependencyCollector collector = collect(
+                "import spark.Request;",
+                "import spark.route.*;",
+                "import static spark.Spark.get;",
+                "import static fig.basic.Option.*;");
+
+        assertEquals(List.of("spark.Request"), collector.getImports());
+        assertEquals(List.of("spark.route"), collector.getWildcardImports());
+        assertEquals(List.of("spark.Spark", "fig.basic.Option"), collector.getStaticImports());
+        assertEquals(List.of("spark"), collector.getDependencies());
+    }
+
+    @Test
+    void testAnalyseLine_QualifiedTypesInCode() {
+        DependencyCollector collector = collect(
+                "import spark.Request;",
+                "public class A {",
+                "    private spark.route.Routes routes = new spark.route.Routes();",
+                "    java.util.Map<String, spark.Request> requests;",
+                "    void run(fig.basic.Pair.Nested nested) {",
+                "        System.out.println(this.routes.find(\"spark.Ignored\", 'x'));",
+                "        routes.get().Nested.call(); // cronutils.Cron",
+                "        spark.Spark.get();",
+                "    }",
+                "}");
+
+        assertEquals(List.of("spark.route.Routes", "java.util.Map", "fig.basic.Pair", "spark.Spark"), collector.getQualifiedTypes());
+        assertEquals(List.of("spark"), collector.getDependencies());
+    }
+
+    @Test
+    void testAnalyseLine_TextBlockContentIgnored() {
+        DependencyCollector collector = collect(
+                "public class A {",
+                "    String text = \"\"\"",
+                "        a.b.C",
+                "        import spark.Request;",
+                "        \"\"\";",
+                "    d.e.F f;",
+                "}");
+
+        assertEquals(List.of("d.e.F"), collector.getQualifiedTypes());
+        assertEquals(List.of(), collector.getImports());
+        assertEquals(List.of(), collector.getDependencies());
+    }
+}
@@ -0,0 +1,55 @@
+package com.itestra.software_analyse_challenge;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FileBitmapTest {
+
+    @Test
+    void testOf_SparseAndDenseGroups_SameIds() {
+        // group 0 sparse, group 1 dense, group 3 a single id
+        long[] words = new long[4 * 1024];
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 0; id < 4 << 16; id++) {
+            boolean set = id < 1 << 16 ? id % 100 == 7 : id < 2 << 16 ? id % 3 != 0 : id == (3 << 16) + 12345;
+            if (set) {
+                words[id >>> 6] |= 1L << id;
+                ids.add(id);
+            }
+        }
+
+        FileBitmap bitmap = FileBitmap.of(words);
+
+        assertEquals(ids.size(), bitmap.size());
+        assertArrayEquals(ids.stream().mapToInt(Integer::intValue).toArray(), bitmap.toArray());
+        for (int id = 0; id < 4 << 16; id += 37) {
+            assertEquals(ids.contains(id), bitmap.contains(id), "id " + id);
+        }
+        assertFalse(bitmap.contains(-1));
+        assertFalse(bitmap.contains(Integer.MAX_VALUE));
+    }
+
+    @Test
+    void testBuilder_GroupAboveArrayLimit_KeptAsBits() {
+        FileBitmap.Builder builder = new FileBitmap.Builder();
+        for (int id = 0; id <= FileBitmap.MAX_ARRAY_SIZE; id++) {
+            builder.add(70_000 + 2 * id);
+        }
+        FileBitmap bitmap = builder.build();
+
+        assertEquals(FileBitmap.MAX_ARRAY_SIZE + 1, bitmap.size());
+        assertTrue(bitmap.contains(70_000));
+        assertFalse(bitmap.contains(70_001));
+        assertEquals(70_000 + 2 * FileBitmap.MAX_ARRAY_SIZE, bitmap.toArray()[FileBitmap.MAX_ARRAY_SIZE]);
+        assertThrows(IllegalArgumentException.class, () -> builder.add(5));
+        assertTrue(FileBitmap.EMPTY.isEmpty());
+    }
+}
@@ -0,0 +1,73 @@
+package com.itestra.software_analyse_challenge;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class GitHistoryAnalyserTest {
+
+    @TempDir
+    Path tempDir;
+
+    private void git(String... arguments) throws IOException {
+        GitObjectReader.run(tempDir, arguments);
+    }
+
+    private void commit(String message) throws IOException {
+        git("add", "-A");
+        git("-c", "user.name=test", "-c", "user.email=test@example.com", "commit", "-q", "-m", message);
+    }
+
+    private static boolean gitAvailable() {
+        try {
+            return new ProcessBuilder("git", "--version").start().waitFor() == 0;
+        } catch (IOException | InterruptedException e) {
+            return false;
+        }
+    }
+
+    @Test
+    void testRun_Commits_ReportChangedRowsAndAnalyseEachBlobOnce() throws IOException {
+        assumeTrue(gitAvailable());
+        git("init", "-q");
+        Path sources = Files.createDirectories(tempDir.resolve("src/fig"));
+        Files.writeString(tempDir.resolve("README"), "not analysed\n");
+        Files.writeString(sources.resolve("A.java"), "package fig;\nclass A {}\n");
+        Files.writeString(sources.resolve("B.java"), "package fig;\nclass B {}\n");
+        commit("first");
+        Files.writeString(sources.resolve("A.java"), "package fig;\nimport spark.C;\nclass A {}\n");
+        Files.createDirectories(tempDir.resolve("src/spark"));
+        Files.writeString(tempDir.resolve("src/spark/C.java"), "package spark;\nclass C {}\n");
+        commit("second");
+        Files.delete(sources.resolve("B.java"));
+        Files.writeString(sources.resolve("A.java"), "package fig;\nclass A {}\n");
+        commit("third");
+
+        Input input = SourceCodeAnalyser.parseInput(new String[]{"-i", tempDir.resolve("src").toString(), "--git", "HEAD~2..HEAD"});
+        List<String> updates = new ArrayList<>();
+        try (GitHistoryAnalyser analyser = new GitHistoryAnalyser(input)) {
+            analyser.run(input.getGitRange(), (commit, results, changed, removed) -> {
+                for (String fileName : changed) {
+                    updates.add(fileName + " " + results.getOutput(results.indexOf(fileName)).getDependencies());
+                }
+                removed.forEach(fileName -> updates.add(fileName + " removed"));
+                updates.add("--");
+            });
+            // A.java returns to its first content, which was analysed before
+            assertEquals(4, analyser.getBlobCount());
+        }
+
+        assertEquals(List.of(
+                "fig/A.java []", "fig/B.java []", "--",
+                "fig/A.java [spark]", "spark/C.java []", "--",
+                "fig/A.java []", "fig/B.java removed", "--"), updates);
+    }
+}
@@ -0,0 +1,96 @@
+package com.itestra.software_analyse_challenge;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ImportGraphTest {
+
+    private static FileAnalysis file(String packageName, List<String> imports, List<String> dependencies) {
+        return new FileAnalysis(1, 1, packageName, imports, dependencies);
+    }
+
+    @Test
+    void testGetDependencies_ChainAcrossProjects_IsTransitive() {
+        Map<String, FileAnalysis> analyses = new HashMap<>();
+        analyses.put("fig/A.java", file("fig", List.of("fig.B"), List.of("fig")));
+        analyses.put("fig/B.java", file("fig", List.of("spark.C"), List.of("spark")));
+        analyses.put("spark/C.java", file("spark", List.of(), List.of()));
+
+        ImportGraph graph = ImportGraph.build(analyses);
+
+        assertEquals(List.of("fig", "spark"), graph.getDependencies("fig/A.java"));
+        assertEquals(List.of("spark"), graph.getDependencies("fig/B.java"));
+        assertEquals(List.of(), graph.getDependencies("spark/C.java"));
+    }
+
+    @Test
+    void testGetDependencies_ImportCycle_SharesProjects() {
+        Map<String, FileAnalysis> analyses = new HashMap<>();
+        analyses.put("a/A.java", file("a", List.of("a.B"), List.of()));
+        analyses.put("a/B.java", file("a", List.of("a.C.Nested"), List.of()));
+        analyses.put("a/C.java", file("a", List.of("a.A", "cronutils.D"), List.of("cron-utils")));
+        analyses.put("cronutils/D.java", file("cronutils", List.of("spark.E"), List.of("spark")));
+        analyses.put("x/Unrelated.java", file("x", List.of("a.Missing"), List.of()));
+
+        ImportGraph graph = ImportGraph.build(analyses);
+
+        assertEquals(List.of("cron-utils", "spark"), graph.getDependencies("a/A.java"));
+        assertEquals(List.of("cron-utils", "spark"), graph.getDependencies("a/B.java"));
+        assertEquals(List.of("cron-utils", "spark"), graph.getDependencies("a/C.java"));
+        assertEquals(List.of("spark"), graph.getDependencies("cronutils/D.java"));
+        assertEquals(List.of(), graph.getDependencies("x/Unrelated.java"));
+    }
+
+    @Test
+    void testUpdate_ChangedImports_MatchesRebuild() {
+        Map<String, FileAnalysis> analyses = new HashMap<>();
+        analyses.put("fig/A.java", file("fig", List.of("fig.B"), List.of("fig")));
+        analyses.put("fig/B.java", file("fig", List.of(), List.of()));
+        analyses.put("spark/C.java", file("spark", List.of(), List.of()));
+        analyses.put("cronutils/D.java", file("cronutils", List.of("spark.C"), List.of("spark")));
+        ImportGraph graph = ImportGraph.build(analyses);
+
+        analyses.put("fig/B.java", file("fig", List.of("cronutils.D"), List.of("spark")));
+        ImportGraph updated = graph.update(analyses, List.of("fig/B.java"));
+
+        assertSame(graph.getFileNames(), updated.getFileNames());
+        assertEquals(List.of("fig", "spark"), updated.getDependencies("fig/A.java"));
+        for (String fileName : analyses.keySet()) {
+            assertEquals(ImportGraph.build(analyses).getDependencies(fileName), updated.getDependencies(fileName));
+        }
+
+        analyses.put("fig/E.java", file("fig", List.of("fig.A"), List.of()));
+        ImportGraph withNewFile = updated.update(analyses, List.of("fig/E.java"));
+        assertEquals(List.of("fig", "spark"), withNewFile.getDependencies("fig/E.java"));
+    }
+
+    @Test
+    void testBuild_ResolveImports_FollowsWildcardAndStaticImportsAndQualifiedTypes() {
+        Map<String, FileAnalysis> analyses = new HashMap<>();
+        analyses.put("app/Main.java", new FileAnalysis(1, 1, "app", List.of(), List.of(), List.of("app.util", "spark.route"), List.of(), List.of()));
+        analyses.put("app/Other.java", new FileAnalysis(1, 1, "app", List.of(), List.of(), List.of(), List.of("app.util.Holder"), List.of()));
+        analyses.put("app/Third.java", new FileAnalysis(1, 1, "app", List.of(), List.of(), List.of(), List.of(),
+                List.of("java.util.Map", "app.util.Helper", "fig.basic.Pair")));
+        analyses.put("app/util/Holder.java", file("app.util", List.of(), List.of()));
+        analyses.put("app/util/Helper.java", file("app.util", List.of("cronutils.D"), List.of("cron-utils")));
+        analyses.put("cronutils/D.java", file("cronutils", List.of(), List.of()));
+
+        ImportGraph ignoring = ImportGraph.build(analyses);
+        assertEquals(List.of(), ignoring.getDependencies("app/Main.java"));
+
+        ImportGraph graph = ImportGraph.build(analyses, ProjectRegistry.DEFAULT);
+        assertEquals(List.of("cron-utils", "spark"), graph.getDependencies("app/Main.java"));
+        assertEquals(List.of(), graph.getDependencies("app/Other.java"));
+        assertEquals(List.of("cron-utils", "fig"), graph.getDependencies("app/Third.java"));
+
+        analyses.put("app/util/Holder.java", file("app.util", List.of("app.util.Helper"), List.of()));
+        ImportGraph updated = graph.update(analyses, List.of("app/util/Holder.java"));
+        assertEquals(List.of("cron-utils"), updated.getDependencies("app/Other.java"));
+    }
+}
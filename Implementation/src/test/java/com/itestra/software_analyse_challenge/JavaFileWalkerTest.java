@@ -0,0 +1,132 @@
+package com.itestra.software_analyse_challenge;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class JavaFileWalkerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static byte[] zip(Map<String, byte[]> entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(bytes)) {
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                out.putNextEntry(new ZipEntry(entry.getKey()));
+                out.write(entry.getValue());
+                out.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private List<String> walk(JavaFileWalker walker) {
+        List<String> fileNames = new ArrayList<>();
+        walker.walk(tempDir, file -> fileNames.add(walker.getFileName(tempDir, file)));
+        fileNames.sort(null);
+        return fileNames;
+    }
+
+    private static boolean createSymbolicLink(Path link, Path target) {
+        try {
+            Files.createSymbolicLink(link, target);
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            return false;
+        }
+    }
+
+    @Test
+    void testWalk_Excludes_MatchDirectoriesAndFilesRelativeToRoot() throws IOException {
+        for (String file : List.of("A.java", "ATest.java", "target/T.java", "a/B.java", "a/target/T.java",
+                "a/BTest.java", "gen/G.java", "src/gen/G.java")) {
+            Files.createDirectories(tempDir.resolve(file).getParent());
+            Files.writeString(tempDir.resolve(file), "int a;\n");
+        }
+
+        try (JavaFileWalker walker = new JavaFileWalker(List.of("target/", "*Test.java", "gen/*.java"))) {
+            assertEquals(List.of("A.java", "a/B.java", "src/gen/G.java"), walk(walker));
+            assertTrue(walker.isExcluded("a/target", true));
+            assertFalse(walker.isExcluded("a/target", false));
+        }
+    }
+
+    @Test
+    void testWalk_SymbolicLinkLoop_IsReportedAndSkipped() throws IOException {
+        Files.createDirectories(tempDir.resolve("a"));
+        Files.writeString(tempDir.resolve("a/A.java"), "int a;\n");
+        Files.writeString(tempDir.resolve("B.java"), "int b;\n");
+        assumeTrue(createSymbolicLink(tempDir.resolve("a/loop"), tempDir));
+        // not a loop, the target is no parent of the link
+        assumeTrue(createSymbolicLink(tempDir.resolve("c"), tempDir.resolve("a")));
+
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        PrintStream systemErr = System.err;
+        List<String> fileNames;
+        System.setErr(new PrintStream(errors, true, StandardCharsets.UTF_8));
+        try (JavaFileWalker walker = new JavaFileWalker(List.of())) {
+            fileNames = walk(walker);
+        } finally {
+            System.setErr(systemErr);
+        }
+
+        assertEquals(List.of("B.java", "a/A.java", "c/A.java"), fileNames);
+        String report = errors.toString(StandardCharsets.UTF_8);
+        assertTrue(report.contains("Skipping symbolic link loop at " + tempDir.resolve("a/loop")), report);
+    }
+
+    @Test
+    void testWalk_NestedArchives_AreReadInPlace() throws IOException {
+        byte[] inner = zip(Map.of("a/A.java", "int a;\nint b;\n".getBytes(StandardCharsets.UTF_8)));
+        Files.createDirectories(tempDir.resolve("libs"));
+        Files.write(tempDir.resolve("libs/outer.zip"), zip(Map.of(
+                "inner-sources.jar", inner,
+                "B.java", "int b;\n".getBytes(StandardCharsets.UTF_8),
+                "target/C.java", "int c;\n".getBytes(StandardCharsets.UTF_8))));
+        Files.writeString(tempDir.resolve("D.java"), "int d;\n");
+
+        Map<String, Integer> lines = new TreeMap<>();
+        try (JavaFileWalker walker = new JavaFileWalker(List.of("target/"))) {
+            walker.walk(tempDir, file -> lines.put(walker.getFileName(tempDir, file), FileAnalyser.analyse(file).getLineNumber()));
+        }
+
+        assertEquals(Map.of(
+                "D.java", 1,
+                "libs/outer.zip!/B.java", 1,
+                "libs/outer.zip!/inner-sources.jar!/a/A.java", 2), lines);
+    }
+
+    @Test
+    void testWalk_ArchiveAsRoot_NamesEntriesLikeADirectory() throws IOException {
+        Path archive = tempDir.resolve("x-sources.jar");
+        try (OutputStream out = Files.newOutputStream(archive)) {
+            out.write(zip(Map.of("com/x/A.java", "int a;\n".getBytes(StandardCharsets.UTF_8))));
+        }
+
+        Map<String, Integer> lines = new TreeMap<>();
+        try (JavaFileWalker walker = new JavaFileWalker(List.of())) {
+            walker.walk(archive, file -> lines.put(walker.getFileName(archive, file), FileAnalyser.analyse(file).getLineNumber()));
+        }
+
+        assertEquals(Map.of("com/x/A.java", 1), lines);
+    }
+}
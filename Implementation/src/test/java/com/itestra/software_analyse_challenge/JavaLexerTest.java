@@ -0,0 +1,57 @@
+package com.itestra.software_analyse_challenge;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JavaLexerTest {
+
+    private static void assertLine(JavaLexer lexer, String line, SourceLine.Kind kind, String code) {
+        SourceLine sourceLine = lexer.next(line);
+        assertEquals(kind, sourceLine.getKind(), line);
+        assertEquals(code, sourceLine.getCode().toString(), line);
+    }
+
+    @Test
+    void testNext_BlockCommentSpanningLines() {
+        JavaLexer lexer = new JavaLexer();
+        assertLine(lexer, "int a; /* start /* still one comment", SourceLine.Kind.CODE, "int a;");
+        assertLine(lexer, "   \"not a string", SourceLine.Kind.COMMENT, "");
+        assertLine(lexer, " end */ int b; // trailing", SourceLine.Kind.CODE, "int b;");
+        assertLine(lexer, "", SourceLine.Kind.BLANK, "");
+    }
+
+    @Test
+    void testNext_LiteralsHideCommentMarkers() {
+        JavaLexer lexer = new JavaLexer();
+        assertLine(lexer, "String s = \"a\\\"/*b\"; char c = '\\''; // x", SourceLine.Kind.CODE, "String s = \"a\\\"/*b\"; char c = '\\'';");
+        assertLine(lexer, "char d = '/'; int e = 1 /2;", SourceLine.Kind.CODE, "char d = '/'; int e = 1 /2;");
+    }
+
+    @Test
+    void testNext_TextBlockSpanningLines() {
+        JavaLexer lexer = new JavaLexer();
+        assertLine(lexer, "String t = \"\"\"", SourceLine.Kind.CODE, "String t = \"\"\"");
+        assertLine(lexer, "  // text \\\"\"\" still text", SourceLine.Kind.CODE, "// text \\\"\"\" still text");
+        assertLine(lexer, "  \"\"\"; // done", SourceLine.Kind.CODE, "\"\"\";");
+    }
+
+    @Test
+    void testNext_TextBlockContentIsFlagged() {
+        JavaLexer lexer = new JavaLexer();
+        assertFalse(lexer.next("String t = \"\"\"").isTextBlockContent());
+        assertTrue(lexer.next("  a.b.C").isTextBlockContent());
+        assertTrue(lexer.next("").isTextBlockContent());
+        assertFalse(lexer.next("  \"\"\"; int a;").isTextBlockContent());
+        assertFalse(lexer.next("int b;").isTextBlockContent());
+    }
+
+    @Test
+    void testNext_UnicodeEscapesAreTranslated() {
+        JavaLexer lexer = new JavaLexer();
+        assertLine(lexer, "int a; \\u002F\\u002A hidden", SourceLine.Kind.CODE, "int a;");
+        assertLine(lexer, "\\u002A/ String s = \"\\\\u002F\";", SourceLine.Kind.CODE, "String s = \"\\\\u002F\";");
+    }
+}
@@ -343,4 +343,57 @@ public class LineNumberCounterTest {
                 """);
         assertEquals(15, LineNumberCounter.computeLineNumberBonus(file));
     }
+
+    @Test
+    void testComputeLineNumberBonus_FileWithCommentMarkersInStrings() throws IOException {
+        File file = createTempFileWithContent("""
+                static final String ALL_PATHS = "+/*paths";
+                static final String ACCEPT = "*/*"; // comment with "quote
+                char quote = '"';
+                String s = "/*"; /* real comment */ int a = 1;
+                """);
+        assertEquals(4, LineNumberCounter.computeLineNumberBonus(file));
+    }
+
+    @Test
+    void testComputeLineNumberBonus_FileWithTextBlock() throws IOException {
+        File file = createTempFileWithContent("""
+                String html = \"""
+                    /* not a comment
+                    // not a comment either
+                    \""";
+                int a = 1;
+                """);
+        // task 1 only skips lines starting with //, also inside the text block
+        assertEquals(4, LineNumberCounter.computeLineNumber(file));
+        // the content lines of the text block are string data, not code; its first and last line count
+        assertEquals(3, LineNumberCounter.computeLineNumberBonus(file));
+    }
+
+    @Test
+    void testComputeLineNumbers_BothCountsMatchTheSingleCounts() throws IOException {
+        File file = createTempFileWithContent("""
+                /* header */
+                public int getSize() {
+                    return size;
+                }
+                // comment
+                int a = 1;
+                """);
+        LineNumberCounter.LineNumbers lineNumbers = LineNumberCounter.computeLineNumbers(file);
+        assertEquals(LineNumberCounter.computeLineNumber(file), lineNumbers.getLineNumber());
+        assertEquals(LineNumberCounter.computeLineNumberBonus(file), lineNumbers.getLineNumberBonus());
+        assertEquals(5, lineNumbers.getLineNumber());
+        assertEquals(1, lineNumbers.getLineNumberBonus());
+    }
+
+    @Test
+    void testComputeLineNumberBonus_FileWithGetterAndTrailingComment() throws IOException {
+        File file = createTempFileWithContent("""
+                public int getSize() { // generated
+                    return size; /* the size */
+                }
+                """);
+        assertEquals(0, LineNumberCounter.computeLineNumberBonus(file));
+    }
 }
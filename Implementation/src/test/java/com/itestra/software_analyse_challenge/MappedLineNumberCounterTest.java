@@ -0,0 +1,64 @@
+package com.itestra.software_analyse_challenge;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MappedLineNumberCounterTest {
+
+    private static final Path CODE_EXAMPLES = Path.of(SourceCodeAnalyser.DEFAULT_INPUT_DIR);
+
+    @TempDir
+    Path tempDir;
+
+    private void assertSameAsLineNumberCounter(Path file) {
+        assertEquals(LineNumberCounter.computeLineNumber(file.toFile()), MappedLineNumberCounter.computeLineNumber(file), file::toString);
+    }
+
+    @Test
+    void testComputeLineNumber_CodeExamples_MatchesLineNumberCounter() {
+        List<Path> files = new ArrayList<>();
+        new JavaFileWalker(List.of()).walk(CODE_EXAMPLES, files::add);
+        assertTrue(files.size() > 100);
+        files.forEach(this::assertSameAsLineNumberCounter);
+    }
+
+    @Test
+    void testComputeLineNumber_UnusualLineBreaksAndWhitespace_MatchesLineNumberCounter() throws IOException {
+        String[] contents = {
+                "",
+                "/",
+                "a\r\n\r\n/\r\n// b\r\n c",
+                "a\rb\r\rc\n\r",
+                "\t\f\u000b x\n\u0000//\n /x\n/ /",
+                "\uFEFF\n\uFEFF// bom\n",
+                "\u00e4\u00f6\u00fc\n  \u20ac // euro\n \n",
+                "   //\n//\n\n   \n",
+        };
+        for (int i = 0; i < contents.length; i++) {
+            Path file = tempDir.resolve("Test" + i + ".java");
+            Files.write(file, contents[i].getBytes(StandardCharsets.UTF_8));
+            assertSameAsLineNumberCounter(file);
+        }
+    }
+
+    @Test
+    void testComputeLineNumber_FileLargerThanReadBuffer_MatchesLineNumberCounter() throws IOException {
+        Path file = tempDir.resolve("Large.java");
+        StringBuilder content = new StringBuilder();
+        while (content.length() < 3 << 20) {
+            content.append("int a = 1;\r\n  // comment\n\n/\n");
+        }
+        Files.writeString(file, content);
+        assertSameAsLineNumberCounter(file);
+    }
+}
@@ -0,0 +1,45 @@
+package com.itestra.software_analyse_challenge;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class OutputWriterTest {
+
+    private static String write(OutputFormat format) throws IOException {
+        StringWriter out = new StringWriter();
+        OutputWriter writer = format.open(out);
+        writer.write("a/A.java", new Output(12, List.of("fig", "spark")).lineNumberBonus(10));
+        writer.write("b/\"quoted\",name.java", new Output(3, List.of()));
+        writer.finish();
+        return out.toString();
+    }
+
+    @Test
+    void testTable_RightAlignsEveryColumn() throws IOException {
+        String n = System.lineSeparator();
+        assertEquals("Result: " + n
+                + "|                 File | Source Lines | Source Lines without Getters and Block Comments | Dependencies |" + n
+                + "|             a/A.java |           12 |                                              10 | [fig, spark] |" + n
+                + "| b/\"quoted\",name.java |            3 |                                             N/A |           [] |" + n,
+                write(OutputFormat.TABLE));
+    }
+
+    @Test
+    void testCsv_QuotesFieldsWithSeparators() throws IOException {
+        assertEquals("file,source_lines,source_lines_bonus,dependencies\r\n"
+                + "a/A.java,12,10,fig;spark\r\n"
+                + "\"b/\"\"quoted\"\",name.java\",3,,\r\n", write(OutputFormat.CSV));
+    }
+
+    @Test
+    void testNdjson_OneEscapedObjectPerLine() throws IOException {
+        assertEquals("{\"file\":\"a/A.java\",\"sourceLines\":12,\"sourceLinesBonus\":10,\"dependencies\":[\"fig\",\"spark\"]}\n"
+                + "{\"file\":\"b/\\\"quoted\\\",name.java\",\"sourceLines\":3,\"sourceLinesBonus\":null,\"dependencies\":[]}\n",
+                write(OutputFormat.NDJSON));
+    }
+}
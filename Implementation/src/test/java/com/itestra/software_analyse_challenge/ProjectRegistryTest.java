@@ -0,0 +1,58 @@
+package com.itestra.software_analyse_challenge;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class ProjectRegistryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testResolve_LongestWholeSegmentPrefixWins() {
+        ProjectRegistry registry = new ProjectRegistry(Map.of(
+                "com.acme", "acme",
+                "com.acme.billing", "billing",
+                "com.acmex", "other"));
+
+        assertEquals("billing", registry.resolve("com.acme.billing.Invoice"));
+        assertEquals("acme", registry.resolve("com.acme.bill.Invoice"));
+        assertEquals("acme", registry.resolve("com.acme"));
+        assertEquals("other", registry.resolve("com.acmex.Tool"));
+        assertNull(registry.resolve("com.acmey.Tool"));
+        assertNull(registry.resolve("com.Tool"));
+        assertEquals(List.of("acme", "billing", "other"), registry.getProjectNames());
+    }
+
+    @Test
+    void testLoad_PropertiesFile() throws IOException {
+        Path file = tempDir.resolve("projects.properties");
+        Files.writeString(file, "# monorepo\ncom.acme.billing = billing\norg.example=example\n");
+
+        ProjectRegistry registry = ProjectRegistry.load(file);
+
+        assertEquals("billing", registry.resolve("com.acme.billing.Invoice"));
+        assertEquals("example", registry.resolve("org.example.Main"));
+        assertNull(registry.resolve("spark.Request"));
+    }
+
+    @Test
+    void testComputeDependencies_CustomRegistry() {
+        DependencyCollector collector = new DependencyCollector(new ProjectRegistry(Map.of("org.example", "example")));
+        JavaLexer lexer = new JavaLexer();
+        for (String line : List.of("import org.example.Main;", "import spark.Request;", "import org.example.util.*;")) {
+            collector.analyseLine(lexer.next(line));
+        }
+
+        assertEquals(List.of("example"), collector.getDependencies());
+    }
+}
@@ -0,0 +1,64 @@
+package com.itestra.software_analyse_challenge;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ReverseDependencyIndexTest {
+
+    private static FileAnalysis file(String packageName, List<String> imports, List<String> dependencies) {
+        return new FileAnalysis(1, 1, packageName, imports, dependencies);
+    }
+
+    @Test
+    void testGetDependents_FilesAndProjects() {
+        Map<String, FileAnalysis> analyses = new HashMap<>();
+        analyses.put("a/A.java", file("a", List.of("a.B"), List.of()));
+        analyses.put("a/B.java", file("a", List.of("a.C", "a.C.Nested"), List.of()));
+        analyses.put("a/C.java", file("a", List.of("a.A", "spark.D"), List.of("spark")));
+        analyses.put("spark/D.java", file("spark", List.of(), List.of()));
+        analyses.put("x/X.java", file("x", List.of("spark.D"), List.of("spark")));
+        analyses.put("x/Y.java", file("x", List.of(), List.of("fig")));
+        ImportGraph graph = ImportGraph.build(analyses);
+        ReverseDependencyIndex index = graph.getReverseIndex();
+
+        assertSame(index, graph.getReverseIndex());
+        assertEquals(List.of("a/A.java", "a/B.java", "a/C.java", "x/X.java"), index.getDependents("spark/D.java"));
+        // a cycle: every member depends on the others, but not on itself
+        assertEquals(List.of("a/B.java", "a/C.java"), index.getDependents("a/A.java"));
+        assertEquals(List.of(), index.getDependents("x/X.java"));
+        assertEquals(List.of("a/A.java", "a/B.java", "a/C.java", "x/X.java"), index.getDependents("spark"));
+        assertEquals(List.of("x/Y.java"), index.getDependents("fig"));
+        assertEquals(List.of(), index.getDependents("cron-utils"));
+        assertThrows(IllegalArgumentException.class, () -> index.getDependents("a/Missing.java"));
+
+        List<Integer> importers = new ArrayList<>();
+        index.forEachImporter(graph.getFileNames().indexOf("a/C.java"), importers::add);
+        assertEquals(List.of(graph.getFileNames().indexOf("a/B.java")), importers);
+    }
+
+    @Test
+    void testGetFileDependents_LongChain() {
+        // ids far apart need several bytes per delta
+        Map<String, FileAnalysis> analyses = new HashMap<>();
+        int count = 70_000;
+        for (int i = 0; i < count; i++) {
+            String imported = i + 1 < count ? String.format("p.T%05d", i + 1) : "p.T00000";
+            analyses.put(String.format("p/T%05d.java", i), file("p", i % 2 == 0 ? List.of(imported) : List.of(), List.of()));
+        }
+        analyses.put("q/Last.java", file("q", List.of("p.T00000"), List.of()));
+        analyses.put("p/T00000.java", file("p", List.of("p.T00001", "q.Last"), List.of()));
+        ReverseDependencyIndex index = ImportGraph.build(analyses).getReverseIndex();
+
+        assertEquals(List.of("p/T00000.java"), index.getDependents("q/Last.java"));
+        assertEquals(List.of("p/T00000.java", "q/Last.java"), index.getDependents("p/T00001.java"));
+        assertEquals(List.of("p/T69998.java"), index.getDependents("p/T69999.java"));
+    }
+}
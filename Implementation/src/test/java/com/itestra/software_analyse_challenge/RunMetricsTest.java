@@ -0,0 +1,59 @@
+package com.itestra.software_analyse_challenge;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RunMetricsTest {
+
+    @Test
+    void testHistogram_Percentiles_WithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1000);
+        }
+
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(1000, histogram.getMin());
+        assertEquals(100_000_000, histogram.getMax());
+        for (double percentile : new double[]{50, 90, 99, 99.9}) {
+            double expected = percentile * 1_000_000;
+            double actual = histogram.getValueAtPercentile(percentile);
+            assertTrue(actual >= expected && actual <= expected * 1.016, percentile + ": " + actual);
+        }
+        assertEquals(100_000_000, histogram.getValueAtPercentile(100));
+
+        for (long value : new long[]{0, 127, 128, 1000, 1L << 40, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.index(value);
+            assertTrue(LatencyHistogram.highestValue(index) >= value);
+            assertTrue(index == 0 || LatencyHistogram.highestValue(index - 1) < value);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("try")
+    void testWrite_ListsPhasesAndSlowestFiles() throws IOException {
+        RunMetrics metrics = new RunMetrics(2);
+        try (RunMetrics.Phase phase = metrics.phase("analyse")) {
+            metrics.recordFile("A.java", 100, 3_000);
+            metrics.recordFile("B.java", 200, 9_000);
+            metrics.recordFile("C.java", 300, 1_000);
+            metrics.recordFile("D.java", 400, 5_000);
+        }
+        StringWriter out = new StringWriter();
+        metrics.write(out);
+        String report = out.toString();
+
+        assertTrue(report.contains("\"files\": 4,"), report);
+        assertTrue(report.contains("\"bytes\": 1000,"), report);
+        assertTrue(report.contains("{\"name\": \"analyse\", \"wallMillis\": "), report);
+        assertTrue(report.contains("\"slowestFiles\": [\n"
+                + "    {\"file\": \"B.java\", \"micros\": 9.0, \"bytes\": 200},\n"
+                + "    {\"file\": \"D.java\", \"micros\": 5.0, \"bytes\": 400}\n"
+                + "  ]"), report);
+    }
+}
@@ -0,0 +1,53 @@
+package com.itestra.software_analyse_challenge;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ShardedAnalyserTest {
+
+    private static final String CODE_EXAMPLES = SourceCodeAnalyser.DEFAULT_INPUT_DIR;
+
+    @TempDir
+    Path tempDir;
+
+    private static String analyse() throws IOException {
+        StringWriter out = new StringWriter();
+        Input input = SourceCodeAnalyser.parseInput(new String[]{"-i", CODE_EXAMPLES});
+        SourceCodeAnalyser.analyse(input, input.getFormat().open(out));
+        return out.toString();
+    }
+
+    /**
+     * What the workers and the coordinator of {@code --shards 3} do, in this process.
+     */
+    private String analyseInShards(long typeHashMask) throws IOException {
+        StringWriter merged = new StringWriter();
+        try (SpillingAnalyser merger = new SpillingAnalyser(Long.MAX_VALUE, typeHashMask)) {
+            for (int shard = 0; shard < 3; shard++) {
+                Path partial = tempDir.resolve("shard-" + shard);
+                ShardedAnalyser.analyseShard(SourceCodeAnalyser.parseInput(new String[]{
+                        "-i", CODE_EXAMPLES, "--shard", shard + "/3", partial.toString()}));
+                merger.addRun(partial);
+            }
+            merger.write(OutputFormat.TABLE, merged, RunMetrics.DISABLED);
+        }
+        return merged.toString();
+    }
+
+    @Test
+    void testAnalyseShard_MergedPartials_MatchSingleProcess() throws IOException {
+        assertEquals(analyse(), analyseInShards(-1L));
+    }
+
+    @Test
+    void testAnalyseShard_AllTypeHashesCollide_MatchSingleProcess() throws IOException {
+        // every declared type gets the same hash, so the merge can only resolve imports by name
+        assertEquals(analyse(), analyseInShards(0));
+    }
+}
@@ -0,0 +1,78 @@
+package com.itestra.software_analyse_challenge;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SourceDecoderTest {
+
+    private static List<String> readLines(byte[] content, Charset charset) throws IOException {
+        List<String> lines = new ArrayList<>();
+        SourceDecoder.readLines(new ByteArrayInputStream(content), charset, lines::add);
+        return lines;
+    }
+
+    @Test
+    void testReadLines_SameLinesAsBufferedReader() throws IOException {
+        for (String content : new String[]{"", "a", "a\n", "a\r\nb\rc\n\nd", "\r\n\r\n", "\n", "a\r", "ä\r\nb", "x y\n中\r"}) {
+            List<String> expected = new BufferedReader(new StringReader(content)).lines().toList();
+            assertEquals(expected, readLines(content.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8), content);
+            assertEquals(expected, readLines(content.getBytes(StandardCharsets.UTF_16LE), StandardCharsets.UTF_16LE), content);
+        }
+    }
+
+    @Test
+    void testReadLines_ByteOrderMarkOverridesCharset() throws IOException {
+        byte[] utf8 = "\uFEFFclass Ä {}\n".getBytes(StandardCharsets.UTF_8);
+        byte[] utf16 = "\uFEFFclass Ä {}\n".getBytes(StandardCharsets.UTF_16BE);
+        byte[] utf16le = "\uFEFFclass Ä {}\n".getBytes(StandardCharsets.UTF_16LE);
+
+        assertEquals(List.of("class Ä {}"), readLines(utf8, StandardCharsets.ISO_8859_1));
+        assertEquals(List.of("class Ä {}"), readLines(utf16, StandardCharsets.UTF_8));
+        assertEquals(List.of("class Ä {}"), readLines(utf16le, StandardCharsets.UTF_8));
+        // only a leading mark is removed
+        assertEquals(List.of("", "\uFEFF// bom"), readLines("\uFEFF\n\uFEFF// bom\n".getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testReadLines_ConfiguredCharset() throws IOException {
+        byte[] latin1 = "// Grüße\nclass A {}\n".getBytes(StandardCharsets.ISO_8859_1);
+
+        assertEquals(List.of("// Grüße", "class A {}"), readLines(latin1, StandardCharsets.ISO_8859_1));
+        assertEquals(List.of("// Gr\uFFFD\uFFFDe", "class A {}"), readLines(latin1, StandardCharsets.UTF_8));
+        assertEquals(new BufferedReader(new InputStreamReader(new ByteArrayInputStream(latin1), StandardCharsets.UTF_8)).lines().toList(),
+                readLines(latin1, StandardCharsets.UTF_8));
+        assertEquals(List.of("// Grüße", "class A {}"), readLines(latin1, Charset.forName("windows-1252")));
+    }
+
+    @Test
+    void testReadLines_LargerThanInitialBuffer() throws IOException {
+        String line = "x".repeat(1000);
+        byte[] content = (line + "\n").repeat(3000).getBytes(StandardCharsets.UTF_8);
+
+        List<String> lines = readLines(content, StandardCharsets.UTF_8);
+        assertEquals(3000, lines.size());
+        assertTrue(lines.stream().allMatch(line::equals));
+        assertEquals(List.of("y"), readLines("y".getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testIsAscii() {
+        byte[] bytes = "abcä".getBytes(StandardCharsets.UTF_8);
+        assertTrue(SourceDecoder.isAscii(bytes, 0, 3));
+        assertFalse(SourceDecoder.isAscii(bytes, 0, bytes.length));
+        assertFalse(SourceDecoder.isAscii(bytes, 3, bytes.length));
+    }
+}
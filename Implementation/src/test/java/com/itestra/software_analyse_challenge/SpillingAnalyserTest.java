@@ -0,0 +1,45 @@
+package com.itestra.software_analyse_challenge;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SpillingAnalyserTest {
+
+    private static final Path CODE_EXAMPLES = Path.of(SourceCodeAnalyser.DEFAULT_INPUT_DIR);
+
+    private static String analyse(String... args) throws IOException {
+        Input input = SourceCodeAnalyser.parseInput(args);
+        StringWriter out = new StringWriter();
+        if (input.getSpillBudget() > 0) {
+            SpillingAnalyser.analyse(input, out, RunMetrics.DISABLED);
+        } else {
+            SourceCodeAnalyser.analyse(input, input.getFormat().open(out));
+        }
+        return out.toString();
+    }
+
+    @Test
+    void testAnalyse_TinyBudget_MatchesInMemoryRun() throws IOException {
+        String directory = CODE_EXAMPLES.toString();
+        // a budget of one byte spills every file, so there are more runs than one merge takes
+        assertEquals(analyse("-i", directory), analyse("-i", directory, "--spill", "1"));
+        assertEquals(analyse("-i", directory, "-f", "csv"), analyse("-i", directory, "-f", "csv", "--spill", "16k", "-t", "4"));
+    }
+
+    @Test
+    void testWrite_AllTypeHashesCollide_MatchesInMemoryRun() throws IOException {
+        Input input = SourceCodeAnalyser.parseInput(new String[]{"-i", CODE_EXAMPLES.toString(), "-f", "csv"});
+        StringWriter out = new StringWriter();
+        // every declared type gets the same hash, so only the names tell them apart
+        try (SpillingAnalyser analyser = new SpillingAnalyser(16 << 10, 0)) {
+            analyser.analyseFiles(input, RunMetrics.DISABLED);
+            analyser.write(input.getFormat(), out, RunMetrics.DISABLED);
+        }
+        assertEquals(analyse("-i", CODE_EXAMPLES.toString(), "-f", "csv"), out.toString());
+    }
+}
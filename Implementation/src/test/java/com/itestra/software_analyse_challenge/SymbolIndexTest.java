@@ -0,0 +1,59 @@
+package com.itestra.software_analyse_challenge;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SymbolIndexTest {
+
+    @Test
+    void testResolveType_NestedType_ResolvesToOutermost() {
+        SymbolIndex index = SymbolIndex.build(List.of("a/A.java", "a/b/B.java", "Top.java"), new String[]{"a", "a.b", ""});
+
+        assertEquals(0, index.resolveType("a.A"));
+        assertEquals(1, index.resolveType("a.b.B.Inner.Deeper"));
+        assertEquals(2, index.resolveType("Top"));
+        assertEquals(-1, index.resolveType("a.b"));
+        assertEquals(-1, index.resolveType("a.Missing"));
+        assertEquals(-1, index.resolveType(".A"));
+    }
+
+    @Test
+    void testResolvePackage_ListsFilesInIdOrder() {
+        SymbolIndex index = SymbolIndex.build(List.of("x/A.java", "y/B.java", "x/C.java", "x/D.java"), new String[]{"x", "y", "x", "x"});
+
+        int pkg = index.resolvePackage("x");
+        List<Integer> files = new ArrayList<>();
+        index.forEachFile(pkg, files::add);
+        assertEquals(List.of(0, 2, 3), files);
+        assertEquals(-1, index.resolvePackage("z"));
+        assertEquals(-1, index.resolvePackage("x.A"));
+    }
+
+    @Test
+    void testBuild_ManyFiles_FirstDeclarationWins() {
+        // large enough to be indexed in parallel; every type is declared twice
+        int count = 20_000;
+        List<String> fileNames = new ArrayList<>();
+        String[] packageNames = new String[count];
+        for (int id = 0; id < count; id++) {
+            fileNames.add("copy" + id / (count / 2) + "/T" + id % (count / 2) + ".java");
+            packageNames[id] = "p" + id % 100;
+        }
+
+        SymbolIndex index = SymbolIndex.build(fileNames, packageNames);
+
+        for (int id = 0; id < count; id++) {
+            assertEquals(id % (count / 2), index.resolveType(packageNames[id] + ".T" + id % (count / 2) + ".Nested"));
+        }
+        int[] files = new int[1];
+        index.forEachFile(index.resolvePackage("p7"), file -> {
+            assertEquals("p7", index.getPackageName(file));
+            files[0]++;
+        });
+        assertEquals(count / 100, files[0]);
+    }
+}